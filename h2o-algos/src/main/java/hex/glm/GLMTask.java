@@ -1315,12 +1315,18 @@ public abstract class GLMTask  {
 
     @Override public boolean handlesSparseData(){return true;}
 
+    // Map all of a thread's chunks into one Gram, unless chunkDone has to
+    // correct each chunk's Gram for sparse standardized zeros
+    @Override protected boolean accumulateByThread() { return !(_sparse && _dinfo._normSub != null); }
+
     transient private double _sparseOffset;
     @Override
     public void chunkInit() {
-      // initialize
-      _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats,true);
-      _xy = MemoryManager.malloc8d(_dinfo.fullN()+1); // + 1 is for intercept
+      // initialize, once per accumulating task
+      if(_gram == null) {
+        _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats,true);
+        _xy = MemoryManager.malloc8d(_dinfo.fullN()+1); // + 1 is for intercept
+      }
       if(_sparse)
          _sparseOffset = GLM.sparseOffset(_beta,_dinfo);
       _w = new GLMWeights();
@@ -93,6 +93,9 @@ public class SharedTreeV3<B extends SharedTree, S extends SharedTreeV3<B,S,P>, P
     @API(help="What type of histogram to use for finding optimal split points", values = { "AUTO", "UniformAdaptive", "Random", "QuantilesGlobal", "RoundRobin"}, level = API.Level.secondary, gridable = true)
     public SharedTreeParameters.HistogramType histogram_type;
 
+    @API(help="For histogram_type QuantilesGlobal and RoundRobin, if positive, compute the global split points in a single pass with a mergeable sketch, to within about this fraction of the rows in rank; 0 computes them exactly", level = API.Level.expert, gridable = true)
+    public double quantiles_sketch_error;
+
     @API(help="Use Platt Scaling to calculate calibrated class probabilities. Calibration can provide more accurate estimates of class probabilities.", level = API.Level.expert)
     public boolean calibrate_model;
 
@@ -140,6 +140,10 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
     if (_parms._nbins_cats >= 1<<16) error ("_nbins_cats", "nbins_cats must be < " + (1<<16));
     if (_parms._nbins_top_level < _parms._nbins) error ("_nbins_top_level", "nbins_top_level must be >= nbins (" + _parms._nbins + ").");
     if (_parms._nbins_top_level >= 1<<16) error ("_nbins_top_level", "nbins_top_level must be < " + (1<<16));
+    if (_parms._quantiles_sketch_error < 0 || _parms._quantiles_sketch_error >= 1) error ("_quantiles_sketch_error", "quantiles_sketch_error must be 0 (exact), or between 0 and 1.");
+    else if (_parms._quantiles_sketch_error > 0 && _parms._histogram_type != SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal
+            && _parms._histogram_type != SharedTreeModel.SharedTreeParameters.HistogramType.RoundRobin)
+      warn ("_quantiles_sketch_error", "quantiles_sketch_error is only used with histogram_type QuantilesGlobal or RoundRobin.");
     if (_parms._max_depth <= 0) error ("_max_depth", "_max_depth must be > 0.");
     if (_parms._min_rows <=0) error ("_min_rows", "_min_rows must be > 0.");
     if (_parms._r2_stopping!=Double.MAX_VALUE) warn("_r2_stopping", "_r2_stopping is no longer supported - please use stopping_rounds, stopping_metric and stopping_tolerance instead.");
@@ -265,6 +269,7 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
           p._train = rndKey;
           p._weights_column = _parms._weights_column;
           p._combine_method = QuantileModel.CombineMethod.INTERPOLATE;
+          p._sketch_error = _parms._quantiles_sketch_error;
           p._probs = new double[N];
           for (int i = 0; i < N; ++i) //compute quantiles such that they span from (inclusive) min...maxEx (exclusive)
             p._probs[i] = i * 1./N;
@@ -10,6 +10,7 @@ import water.fvec.Frame;
 import water.util.ArrayUtils;
 
 import java.util.Arrays;
+import java.util.Random;
 
 public class QuantileTest extends TestUtil {
   @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
@@ -39,6 +40,42 @@ public class QuantileTest extends TestUtil {
     }
   }
   
+  // Sketched quantiles: exact on a small frame, close on a big one
+  @Test public void testSketch() {
+    Frame fr = null, big = null;
+    QuantileModel exact = null, sketch = null;
+    try {
+      fr = parse_test_file("smalldata/iris/iris_wheader.csv");
+      QuantileModel.QuantileParameters parms = new QuantileModel.QuantileParameters();
+      parms._train = fr._key;
+      exact = new Quantile(parms).trainModel().get();
+      parms._sketch_error = 0.005;
+      sketch = new Quantile(parms).trainModel().get();
+      Assert.assertEquals(1, sketch._output._iterations);
+      for (int c = 0; c < 4; c++)
+        Assert.assertArrayEquals(exact._output._quantiles[c], sketch._output._quantiles[c], 1e-10);
+      Assert.assertTrue(Double.isNaN(sketch._output._quantiles[4][0])); // Categorical class
+      exact.delete(); sketch.delete(); exact = sketch = null;
+
+      double[][] rows = new double[100000][];
+      Random r = new Random(42);
+      for (int i = 0; i < rows.length; i++) rows[i] = ard(r.nextGaussian());
+      big = ArrayUtils.frame(rows);
+      parms = new QuantileModel.QuantileParameters();
+      parms._train = big._key;
+      exact = new Quantile(parms).trainModel().get();
+      parms._sketch_error = 0.005;
+      sketch = new Quantile(parms).trainModel().get();
+      for (int p = 0; p < parms._probs.length; p++)
+        Assert.assertEquals(exact._output._quantiles[0][p], sketch._output._quantiles[0][p], 0.02);
+    } finally {
+      if (fr != null) fr.remove();
+      if (big != null) big.remove();
+      if (exact != null) exact.delete();
+      if (sketch != null) sketch.delete();
+    }
+  }
+
   @Test public void testAllNAS() {
     QuantileModel kmm = null;
     Frame fr = null;
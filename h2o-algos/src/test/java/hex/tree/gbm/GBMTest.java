@@ -1972,6 +1972,41 @@ public class GBMTest extends TestUtil {
     }
   }
 
+  @Test public void quantilesSketch() {
+    Frame tfr = null;
+    GBMModel gbm1 = null, gbm2 = null;
+    try {
+      tfr = parse_test_file("./smalldata/logreg/prostate.csv");
+      DKV.put(tfr);
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._train = tfr._key;
+      parms._response_column = "VOL";
+      parms._ignored_columns = new String[]{"ID"};
+      parms._histogram_type = SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal;
+      parms._ntrees = 5;
+      parms._max_depth = 3;
+      parms._seed = 1234;
+      gbm1 = new GBM(parms).trainModel().get();
+
+      // Sketched global split points land close to the exact ones
+      parms._quantiles_sketch_error = 0.01;
+      gbm2 = new GBM(parms).trainModel().get();
+      double mse1 = gbm1._output._training_metrics.mse(), mse2 = gbm2._output._training_metrics.mse();
+      Log.info("Exact split points MSE: " + mse1 + ", sketched: " + mse2);
+      assertEquals(mse1, mse2, 0.1 * mse1);
+
+      parms._quantiles_sketch_error = -1;
+      try {
+        new GBM(parms).trainModel().get();
+        Assert.fail("Should toss H2OModelBuilderIllegalArgumentException instead of reaching here");
+      } catch(H2OModelBuilderIllegalArgumentException e) {}
+    } finally {
+      if (tfr != null) tfr.delete();
+      if (gbm1 != null) gbm1.delete();
+      if (gbm2 != null) gbm2.delete();
+    }
+  }
+
   @Test public void sampleRatePerClass() {
     Frame tfr = null;
     Key[] ksplits = null;
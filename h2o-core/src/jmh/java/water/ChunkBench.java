@@ -38,6 +38,10 @@ public class ChunkBench {
   private int cols;
   @Param({"1000", "100000"})
   private int rows;
+  // Chunk types cycled over the columns; the first 4 keep the original column
+  // layout, newer types only come in with more
+  @Param({"4", "6"})
+  private int types;
   private Chunk[] chunks;
   private double[][] raw;
 
@@ -127,7 +131,7 @@ public class ChunkBench {
     raw = new double[cols][rows];
     for (int col = 0; col < cols; ++col) {
       for (int row = 0; row < rows; ++row) {
-        raw[col][row] = get(col, row);
+        raw[col][row] = get(col % types, row);
       }
     }
     chunks = new Chunk[cols];
@@ -136,16 +140,20 @@ public class ChunkBench {
     }
   }
 
-  private static double get(int j, int i) {
-    switch (j % 4) { // do 4 chunk types
+  private static double get(int type, int i) {
+    switch (type) {
       case 0:
         return i % 200; //C1NChunk - 1 byte integer
       case 1:
-        return i % 500; //C2Chunk - 2 byte integer
+        return i % 500; //CNBChunk - 9 bit integer
       case 2:
         return  i*Integer.MAX_VALUE;
       case 3:
         return i == 17 ? 1 : 0; //CX0Chunk - sparse
+      case 4:
+        return (float)(20 + Math.sin(i / 100.0)); //C8XChunk - slowly changing reals
+      case 5:
+        return i * 7919 % 60001 - 30000; //C2Chunk - 2 byte integer
       default:
         throw H2O.unimpl();
     }
@@ -160,28 +160,50 @@ abstract public class ModelBuilder<M extends Model<M,P,O>, P extends Model.Param
   public Vec vresponse(){return _vresponse == null ? _response : _vresponse;}
 
   abstract protected class Driver extends H2O.H2OCountedCompleter<Driver> {
+    // Job of the thread that started this build, if any: set for CV models,
+    // grids and ensembles, whose builds run inside the parent's admission
+    private final Key<Job> _parentJob = JobMemory.current();
     protected Driver(){ super(); }
     protected Driver(H2O.H2OCountedCompleter completer){ super(completer); }
     // Pull the boilerplate out of the computeImpl(), so the algo writer doesn't need to worry about the following:
     // 1) Scope (unless they want to keep data, then they must call Scope.untrack(Key<Vec>[]))
     // 2) Train/Valid frame locking and unlocking
     // 3) calling tryComplete()
+    // 4) attributing memory to the job, and waiting for memory to be admitted
     public void compute2() {
+      Key<Job> prevJob = JobMemory.enter(_job._key);
+      // Child builds run inside their parent's admission; waiting for memory
+      // the parent holds would deadlock
+      boolean child = _parms._is_cv_model || (_parentJob != null && !_parentJob.equals(_job._key));
+      long admitted = child ? 0 : JobMemory.admit(_job, estimateMemoryFootprint());
       try {
         Scope.enter();
         _parms.read_lock_frames(_job); // Fetch & read-lock input frames
         computeImpl();
       } finally {
-        setFinalState();
-        _parms.read_unlock_frames(_job);
-        if (!_parms._is_cv_model) cleanUp(); //cv calls cleanUp on its own terms
-        Scope.exit();
+        try {
+          setFinalState();
+          _parms.read_unlock_frames(_job);
+          if (!_parms._is_cv_model) cleanUp(); //cv calls cleanUp on its own terms
+          Scope.exit();
+        } finally {
+          JobMemory.release(admitted);
+          JobMemory.exit(prevJob);
+        }
       }
       tryComplete();
     }
     public abstract void computeImpl();
   }
 
+  /** Estimated memory needed on each node to build this model, used by the
+   *  optional admission control in {@link JobMemory}.  Defaults to the
+   *  training frame's share per node; algos with large internal state (e.g.
+   *  histograms or Gram matrices) should override. */
+  protected long estimateMemoryFootprint() {
+    return _train == null ? 0 : _train.byteSize() / H2O.CLOUD.size();
+  }
+
   private void setFinalState() {
     Key<M> reskey = dest();
     if (reskey == null) return;
@@ -39,6 +39,8 @@ public class Quantile extends ModelBuilder<QuantileModel,QuantileModel.QuantileP
     for( double p : _parms._probs )
       if( p < 0.0 || p > 1.0 )
         error("_probs","Probabilities must be between 0 and 1");
+    if( _parms._sketch_error < 0 || _parms._sketch_error >= 1 )
+      error("_sketch_error","Sketch error must be 0 (exact), or between 0 and 1");
     _ncols = train().numCols()-numSpecialCols(); //offset/weights/nfold - should only ever be weights
     if ( numSpecialCols() == 1 && _weights == null)
       throw new IllegalArgumentException("The only special Vec that is supported for Quantiles is observation weights.");
@@ -76,6 +78,10 @@ public class Quantile extends ModelBuilder<QuantileModel,QuantileModel.QuantileP
         // ---
         // Run the main Quantile Loop
         Vec vecs[] = train().vecs();
+        if( _parms._sketch_error > 0 ) {
+          sketchQuantiles(model, vecs);
+          return;
+        }
         for( int n=0; n<_ncols; n++ ) {
           if( stop_requested() ) return; // Stopped/cancelled
           Vec vec = vecs[n];
@@ -113,6 +119,66 @@ public class Quantile extends ModelBuilder<QuantileModel,QuantileModel.QuantileP
         if( model != null ) model.unlock(_job);
       }
     }
+
+    // One pass over all columns, and all quantiles read off the sketches
+    private void sketchQuantiles(QuantileModel model, Vec vecs[]) {
+      Vec[] cols = Arrays.copyOf(vecs, _ncols + (_weights == null ? 0 : 1));
+      if( _weights != null ) cols[_ncols] = _weights;
+      QuantileSketch[] sketches = new SketchTask(_parms._sketch_error, _ncols, _weights != null).doAll(cols)._sketches;
+      model._output._iterations = 1;
+      for( int n=0; n<_ncols; n++ ) {
+        Vec vec = vecs[n];
+        boolean skip = vec.isBad() || vec.isCategorical() || vec.isString() || vec.isTime() || vec.isUUID();
+        for( int p = 0; p < _parms._probs.length; p++ )
+          model._output._quantiles[n][p] = skip ? Double.NaN : sketches[n].quantile(_parms._probs[p], _parms._combine_method);
+        _job.update(_parms._probs.length);
+      }
+      model.update(_job);
+      Log.debug("Quantile: sketched " + _ncols + " columns in one pass");
+    }
+  }
+
+  /** Sketch every column in one pass; an optional weights column comes last. */
+  public static class SketchTask extends MRTask<SketchTask> {
+    private final double _error;
+    private final int _ncols;
+    private final boolean _hasWeights;
+    public QuantileSketch[] _sketches;
+
+    public SketchTask(double error, int ncols, boolean hasWeights) {
+      _error = error; _ncols = ncols; _hasWeights = hasWeights;
+    }
+
+    @Override public void map(Chunk[] cs) {
+      _sketches = new QuantileSketch[_ncols];
+      int len = cs[0]._len;
+      double[] vs = new double[len], ws = _hasWeights ? new double[len] : null;
+      double[] wts = _hasWeights ? cs[_ncols].getDoubles(new double[len], 0, len) : null;
+      int[] idxs = _hasWeights ? new int[len] : null;
+      double[] sorted = _hasWeights ? new double[len] : null;
+      for( int c=0; c<_ncols; c++ ) {
+        _sketches[c] = new QuantileSketch(_error);
+        if( !cs[c].vec().isNumeric() ) continue;
+        cs[c].getDoubles(vs, 0, len);
+        int n = 0;
+        for( int row=0; row<len; row++ ) {
+          if( Double.isNaN(vs[row]) ) continue; // na.rm=true
+          if( wts == null ) vs[n++] = vs[row];
+          else if( wts[row] > 0 ) { idxs[n] = row; sorted[n++] = vs[row]; }
+        }
+        if( wts == null ) Arrays.sort(vs, 0, n);
+        else {                  // Sort the weights along with the values
+          int[] order = ArrayUtils.seq(0, n);
+          ArrayUtils.sort(order, sorted);
+          for( int i=0; i<n; i++ ) { vs[i] = sorted[order[i]]; ws[i] = wts[idxs[order[i]]]; }
+        }
+        _sketches[c].addSorted(vs, ws, n);
+      }
+    }
+
+    @Override public void reduce(SketchTask t) {
+      for( int c=0; c<_ncols; c++ ) _sketches[c].merge(t._sketches[c]);
+    }
   }
 
   public static class StratifiedQuantilesTask extends H2O.H2OCountedCompleter<StratifiedQuantilesTask> {
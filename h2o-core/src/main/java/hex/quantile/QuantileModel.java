@@ -13,6 +13,9 @@ public class QuantileModel extends Model<QuantileModel,QuantileModel.QuantilePar
     // Set of probabilities to compute
     public double _probs[/*Q*/] = new double[]{0.001,0.01,0.1,0.25,0.333,0.50,0.667,0.75,0.9,0.99,0.999};
     public CombineMethod _combine_method = CombineMethod.INTERPOLATE;
+    // If positive, compute all quantiles in one pass with a QuantileSketch,
+    // to within about this fraction of the rows in rank; 0 is exact
+    public double _sketch_error = 0;
     protected boolean defaultDropConsCols() { return false; }
     public String algoName() { return "Quantiles"; }
     public String fullName() { return "Quantiles"; }
@@ -0,0 +1,136 @@
+package hex.quantile;
+
+import water.Iced;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch of one column, in the style of a merging t-digest.
+ * Values are summarized by centroids (weighted means) kept sorted by mean;
+ * centroids are merged while they span no more than one unit of the scale
+ * function k(q) = delta/(2 pi) asin(2q-1), so they are small in the tails and
+ * widest at the median, where a centroid covers about pi/delta of the rows.
+ * <p/>
+ * Sketches of disjoint parts of a column merge into a sketch of the whole, so
+ * one pass over all columns of a Frame suffices for any set of quantiles.
+ * Quantiles are within about the configured fraction of the rows in rank;
+ * no values are merged in columns of fewer than about delta/2 rows, whose
+ * quantiles come out exact.
+ */
+public class QuantileSketch extends Iced<QuantileSketch> {
+  private final double _delta;  // Compression: pi over the rank error
+  private double[] _means;      // Centroids, sorted by mean
+  private double[] _wts;
+  private int _n;               // Centroids in use
+  private double _total;        // Sum of weights
+  private double _min = Double.POSITIVE_INFINITY, _max = Double.NEGATIVE_INFINITY;
+
+  /** @param error rank error allowed, as a fraction of the rows */
+  public QuantileSketch(double error) {
+    if (!(error > 0 && error < 1)) throw new IllegalArgumentException("Sketch error must be between 0 and 1: " + error);
+    _delta = Math.PI / error;
+    _means = new double[0];
+    _wts = new double[0];
+  }
+
+  /** Sum of the weights of the values added */
+  public double totalWeight() { return _total; }
+
+  /** Number of centroids kept */
+  public int size() { return _n; }
+
+  /** Add values, sorted, with their weights; weights may be null for all 1 */
+  public void addSorted(double[] vs, double[] ws, int len) {
+    if (len == 0) return;
+    if (ws == null) {
+      ws = new double[len];
+      Arrays.fill(ws, 1);
+    }
+    double total = 0;
+    for (int i = 0; i < len; i++) total += ws[i];
+    _min = Math.min(_min, vs[0]);
+    _max = Math.max(_max, vs[len - 1]);
+    mergeIn(vs, ws, len, total);
+  }
+
+  /** Fold another sketch of the same column into this one */
+  public void merge(QuantileSketch s) {
+    if (s._n == 0) return;
+    _min = Math.min(_min, s._min);
+    _max = Math.max(_max, s._max);
+    mergeIn(s._means, s._wts, s._n, s._total);
+  }
+
+  // Merge sorted centroids with ours, then compress the lot in one sweep
+  private void mergeIn(double[] ms, double[] ws, int len, double total) {
+    int m = _n + len;
+    double[] means = new double[m], wts = new double[m];
+    for (int i = 0, a = 0, b = 0; i < m; i++) {
+      if (b == len || (a < _n && _means[a] <= ms[b])) {
+        means[i] = _means[a];
+        wts[i] = _wts[a++];
+      } else {
+        means[i] = ms[b];
+        wts[i] = ws[b++];
+      }
+    }
+    _total += total;
+    _n = 0;
+    _means = means;             // Compressed in place: never outruns the reads
+    _wts = wts;
+    double wsofar = 0, cm = means[0], cw = wts[0];
+    for (int i = 1; i < m; i++) {
+      if (k((wsofar + cw + wts[i]) / _total) - k(wsofar / _total) <= 1) {
+        cw += wts[i];
+        cm += (means[i] - cm) * wts[i] / cw;
+      } else {
+        wsofar += cw;
+        _means[_n] = cm;
+        _wts[_n++] = cw;
+        cm = means[i];
+        cw = wts[i];
+      }
+    }
+    _means[_n] = cm;
+    _wts[_n++] = cw;
+    if (_n < m >> 1) {          // Trim slack
+      _means = Arrays.copyOf(_means, _n);
+      _wts = Arrays.copyOf(_wts, _n);
+    }
+  }
+
+  private double k(double q) {
+    return _delta / (2 * Math.PI) * Math.asin(2 * Math.min(q, 1) - 1);
+  }
+
+  /** @return quantile for probability prob, or NaN if no values were added.
+   *  As in {@link Quantile}, the quantile is at the fractional row
+   *  prob*(rows-1); a centroid stands at the middle of its rows, and between
+   *  centroids values are interpolated, except between two single values,
+   *  which are combined by the given method. */
+  public double quantile(double prob, QuantileModel.CombineMethod method) {
+    if (_n == 0) return Double.NaN;
+    double row = prob * (_total - 1);
+    double lo = _min, lorow = 0; // The min is at row 0
+    double sofar = 0;            // Weight of the centroids before i
+    for (int i = 0; i < _n; i++) {
+      double center = sofar + (_wts[i] - 1) / 2;
+      if (row <= center) {
+        double q;
+        if (row == center) q = _means[i];
+        else if (i > 0 && _wts[i] == 1 && _wts[i - 1] == 1 && center - lorow == 1)
+          q = Quantile.computeQuantile(lo, _means[i], lorow, _total, prob, method);
+        else q = interpolate(lo, lorow, _means[i], center, row);
+        return Math.max(_min, Math.min(_max, q));
+      }
+      lo = _means[i];
+      lorow = center;
+      sofar += _wts[i];
+    }
+    return Math.max(_min, Math.min(_max, interpolate(lo, lorow, _max, _total - 1, row)));
+  }
+
+  private static double interpolate(double lo, double lorow, double hi, double hirow, double row) {
+    return hirow <= lorow ? hi : lo + (hi - lo) * (row - lorow) / (hirow - lorow);
+  }
+}
@@ -8,10 +8,11 @@ import water.api.schemas3.ModelParametersSchemaV3;
 public class QuantileV3 extends ModelBuilderSchema<Quantile,QuantileV3,QuantileV3.QuantileParametersV3> {
 
   public static final class QuantileParametersV3 extends ModelParametersSchemaV3<QuantileModel.QuantileParameters, QuantileParametersV3> {
-    static public String[] own_fields = new String[] {"probs", "combine_method", "weights_column"};
+    static public String[] own_fields = new String[] {"probs", "combine_method", "sketch_error", "weights_column"};
 
     // Input fields
     @API(help="Probabilities for quantiles")  public double probs[];
     @API(help="How to combine quantiles for even sample sizes", values={"INTERPOLATE", "AVG", "LO", "HI"}) public QuantileModel.CombineMethod combine_method;
+    @API(help="If positive, compute all quantiles in a single pass with a mergeable sketch, to within about this fraction of the rows in rank; 0 computes them exactly", level=API.Level.expert) public double sketch_error;
   } // QuantileParametersV2
 }
@@ -113,6 +113,9 @@ class Cleaner extends Thread {
       long cleaned = 0;         // Disk i/o bytes
       long freed = 0;           // memory freed bytes
       long io_ns = 0;           // i/o ns writing
+      long offheap = 0;         // bytes moved off-heap
+      long queued = 0;          // bytes handed to the SwapWriters
+      if( SwapWriter.diskFailed() ) diskFull = true; // Async write failed since last pass
 
       // For faster K/V store walking get the NBHM raw backing array,
       // and walk it directly.
@@ -127,13 +130,29 @@ class Cleaner extends Thread {
         Value val = (Value)ov;
         byte[] m = val.rawMem();
         Object p = val.rawPOJO();
-        if( m == null && p == null ) continue; // Nothing to throw out
+        if( m == null && p == null ) { // Nothing to throw out of the heap
+          // But when the off-heap tier fills up, its cold Values go on to disk
+          if( val.isOffHeap() && MemoryManager.offHeapFull() && H2O.ARGS.cleaner && !diskFull && !val._swapping &&
+              EvictionPolicy.POLICY.score(val) <= clean_to_age ) {
+            long now_ns = System.nanoTime();
+            try {
+              if( val.spillOffHeap() ) cleaned += val._max;
+            } catch( FileNotFoundException fnfe ) { // Can happen due to racing key delete/remove
+            } catch( IOException e ) {
+              Log.warn("Disk swapping of off-heap data failed! " + e.getMessage());
+              diskFull = true;
+            }
+            io_ns += System.nanoTime() - now_ns;
+          }
+          continue;
+        }
         if( val.isLockable() ) continue; // we do not want to throw out Lockables.
         boolean isChunk = p instanceof Chunk && !((Chunk)p).isVolatile();
         // Ignore things younger than the required age.  In particular, do
         // not spill-to-disk all dirty things we find.
         long touched = val._lastAccessedTime;
-        if( touched > clean_to_age ) { // Too recently touched?
+        if( EvictionPolicy.POLICY.score(val) > clean_to_age || // Too recently touched?
+            (isChunk && EvictionPolicy.isPinned((Key)ok)) ) {  // or pinned in memory?
           // But can toss out a byte-array if already deserialized & on disk
           // (no need for both forms).  Note no savings for Chunks, for which m==p._mem
           if( val.isPersisted() && m != null && p != null && !isChunk ) {
@@ -150,9 +169,25 @@ class Cleaner extends Thread {
         // Too many POJOs are written to dynamically; cannot spill & reload
         // them without losing changes.
 
+        if( val._swapping ) continue; // Write-behind in progress; revisit next pass
+
+        // Under pressure, prefer parking home Chunks in the off-heap tier: no
+        // disk i/o now, and a memcpy instead of a disk read to bring them back.
+        if( isChunk && force && !val.isPersisted() && ((Key)ok).home() && val.storeOffHeap() ) {
+          EvictionPolicy.EVICTIONS.incrementAndGet();
+          freed += val._max;
+          offheap += val._max;
+          force = (h._cached >= DESIRED || !MemoryManager.CAN_ALLOC);
+          continue;
+        }
+
         // Should I write this value out to disk?
         // Should I further force it from memory?
-        if( isChunk && !val.isPersisted() && !diskFull && ((Key)ok).home() ) { // && (force || (lazyPersist() && lazy_clean(key)))) {
+        if( isChunk && !val.isPersisted() && !val.isOffHeap() && !diskFull && ((Key)ok).home() ) { // && (force || (lazyPersist() && lazy_clean(key)))) {
+          if( SwapWriter.offer(val) ) { // Handed off to a write-behind SwapWriter
+            queued += val._max;
+            continue;
+          }
           long now_ns = System.nanoTime();
           try { val.storePersist(); } // Write to disk
           catch( FileNotFoundException fnfe ) { continue; } // Can happen due to racing key delete/remove
@@ -168,8 +203,9 @@ class Cleaner extends Thread {
           if( m != null ) cleaned += m.length; // Accumulate i/o bytes
           io_ns += System.nanoTime() - now_ns; // Accumulate i/o time
         }
-        // And, under pressure, free all
-        if( isChunk && force && (val.isPersisted() || !((Key)ok).home()) ) {
+        // And, under pressure, free all; an off-heap copy serves like a disk one
+        if( isChunk && force && (val.isPersisted() || val.isOffHeap() || !((Key)ok).home()) ) {
+          if( m != null || p != null ) EvictionPolicy.EVICTIONS.incrementAndGet();
           val.freeMem ();  if( m != null ) freed += val._max;  m = null;
           val.freePOJO();  if( p != null ) freed += val._max;  p = null;
           if( isChunk ) freed -= val._max; // Double-counted freed mem for Chunks since val._pojo._mem & val._mem are the same.
@@ -187,11 +223,12 @@ class Cleaner extends Thread {
       }
 
       String s1 = "Cleaner pass took: "+PrettyPrint.msecs(System.currentTimeMillis()-now,true)+
-                  ", spilled "+PrettyPrint.bytes(cleaned)+" in "+PrettyPrint.usecs(io_ns>>10);
+                  ", spilled "+PrettyPrint.bytes(cleaned)+" in "+PrettyPrint.usecs(io_ns>>10)+
+                  ", queued "+PrettyPrint.bytes(queued)+" for write-behind";
       h = Histo.current(true); // Force a new histogram
       MemoryManager.set_goals("postclean",false);
       // No logging if under memory pressure: can deadlock the cleaner thread
-      String s2 = h+" diski_o="+PrettyPrint.bytes(cleaned)+", freed="+(freed>>20)+"M, DESIRED="+(DESIRED>>20)+"M";
+      String s2 = h+" diski_o="+PrettyPrint.bytes(cleaned)+", offheap="+PrettyPrint.bytes(offheap)+", freed="+(freed>>20)+"M, DESIRED="+(DESIRED>>20)+"M";
       if( MemoryManager.canAlloc() ) Log.debug(s1,s2);
       else                           System.err.println(s1+"\n"+s2);
       // For testing thread
@@ -226,6 +263,7 @@ class Cleaner extends Thread {
     // built nor blocking for one being in-progress.
     static long cached() { return H._cached; }
     static long swapped(){ return H._swapped;}
+    static long offheap(){ return H._offheap;}
 
     final long[] _hs = new long[128];
     long _oldest; // Time of the oldest K/V discovered this pass
@@ -235,6 +273,7 @@ class Cleaner extends Thread {
     long _total;  // Total data in local K/V
     long _when;   // When was this histogram computed
     long _swapped;// On-disk stuff
+    long _offheap;// Off-heap stuff
     Value _vold;  // For assertions: record the oldest Value
     boolean _clean; // Was "clean" K/V when built?
 
@@ -250,6 +289,7 @@ class Cleaner extends Thread {
       long cached = 0; // Total K/V cached in ram
       long total = 0;  // Total K/V in local node
       long swapped=0;  // Total K/V persisted
+      long offheap=0;  // Total K/V in the off-heap tier
       long oldest = Long.MAX_VALUE; // K/V with the longest time since being touched
       Value vold = null;
       // Start the walk at slot 2, because slots 0,1 hold meta-data
@@ -262,6 +302,7 @@ class Cleaner extends Thread {
         if( val.isNull() ) { Value.STORE_get(val._key); continue; } // Another flavor of NULL
         total += val._max;
         if( val.isPersisted() ) swapped += val._max;
+        if( val.isOffHeap() ) offheap += val._max;
         int len = 0;
         byte[] m = val.rawMem();
         Object p = val.rawPOJO();
@@ -271,12 +312,13 @@ class Cleaner extends Thread {
         if( len == 0 ) continue;
         cached += len; // Accumulate total amount of cached keys
 
-        if( val._lastAccessedTime < oldest ) { // Found an older Value?
+        long score = EvictionPolicy.POLICY.score(val);
+        if( score < oldest ) { // Found an older Value?
           vold = val; // Record oldest Value seen
-          oldest = val._lastAccessedTime;
+          oldest = score;
         }
         // Compute histogram bucket
-        int idx = (int)((val._lastAccessedTime - eldest)/_hStep);
+        int idx = (int)((score - eldest)/_hStep);
         if( idx < 0 ) idx = 0;
         else if( idx >= _hs.length ) idx = _hs.length-1;
         _hs[idx] += len;      // Bump histogram bucket
@@ -284,6 +326,7 @@ class Cleaner extends Thread {
       _cached = cached; // Total cached; NOTE: larger than sum of histogram buckets
       _total = total;   // Total used data
       _swapped = swapped;
+      _offheap = offheap;
       _oldest = oldest; // Oldest seen in this pass
       _vold = vold;
       _clean = clean && _dirty==Long.MAX_VALUE; // Looks like a clean K/V the whole time?
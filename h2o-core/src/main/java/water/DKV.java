@@ -192,7 +192,7 @@ public abstract class DKV {
     Value val = Value.STORE_get(key);
     // Hit in local cache?
     if( val != null ) {
-      if( val.rawMem() != null || val.rawPOJO() != null || val.isPersisted() )
+      if( val.rawMem() != null || val.rawPOJO() != null || val.isOffHeap() || val.isPersisted() )
         return val;
       assert !key.home(); // Master must have *something*; we got nothing & need to fetch
     }
@@ -0,0 +1,105 @@
+package water;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.nbhm.ConcurrentAutoTable;
+import water.util.Log;
+
+/** Decides in which order the {@link Cleaner} evicts Values from memory.
+ *  <p>
+ *  A policy maps each Value to a score that behaves like an access time: the
+ *  Cleaner builds its histogram over scores and evicts the lowest ones first,
+ *  exactly as it used to do with the raw last-access time.  The policy is
+ *  picked at startup with -Dsys.ai.h2o.cleaner.policy=lru|lru2|&lt;class name&gt;;
+ *  the default is plain LRU.
+ *  <p>
+ *  Frames can also be pinned in memory on all nodes with {@link #pin}; the
+ *  Cleaner never evicts the Chunks of a pinned Vec.  Cache hit, miss and
+ *  eviction counts for Chunks are kept here and published in the heartbeat.
+ */
+public abstract class EvictionPolicy {
+  /** @return a recency score for the Value; lower scores are evicted first */
+  public abstract long score(Value val);
+
+  /** Plain least-recently-used: the score is the last access time. */
+  public static class LRU extends EvictionPolicy {
+    @Override public long score(Value val) { return val.lastAccessedTime(); }
+  }
+
+  /** LRU-2: the score is the time of the second most recent (uncorrelated)
+   *  access.  Data touched over and over - e.g. a training frame scanned
+   *  once per iteration - outranks data touched by a single recent scan, so
+   *  a one-off pass over an old frame does not flush the working set.  Values
+   *  seen only once are treated as if their previous access was one
+   *  retained-information period before the only one. */
+  public static class LRU2 extends EvictionPolicy {
+    static final long RETAINED_INFO_MS = Long.getLong(H2O.OptArgs.SYSTEM_PROP_PREFIX + "cleaner.lru2.period", 60*1000);
+    @Override public long score(Value val) {
+      long prev = val.prevAccessedTime();
+      return prev != 0 ? prev : val.lastAccessedTime() - RETAINED_INFO_MS;
+    }
+  }
+
+  static final EvictionPolicy POLICY = make(System.getProperty(H2O.OptArgs.SYSTEM_PROP_PREFIX + "cleaner.policy", "lru"));
+
+  private static EvictionPolicy make(String name) {
+    switch( name ) {
+    case "lru":  return new LRU();
+    case "lru2": return new LRU2();
+    default:
+      try {
+        return (EvictionPolicy)Class.forName(name).newInstance();
+      } catch( Exception e ) {
+        Log.warn("Unknown eviction policy " + name + ", using LRU");
+        return new LRU();
+      }
+    }
+  }
+
+  // ---
+  // Chunk cache statistics for this node.  Hits are counted on every Chunk
+  // access from every thread, so they go to a striped counter rather than a
+  // single contended word; reads sum the stripes.
+  static final ConcurrentAutoTable HITS = new ConcurrentAutoTable();
+  static final ConcurrentAutoTable MISSES = new ConcurrentAutoTable();
+  static final AtomicLong EVICTIONS = new AtomicLong();
+  public static long hits()      { return HITS.get(); }
+  public static long misses()    { return MISSES.get(); }
+  public static long evictions() { return EVICTIONS.get(); }
+
+  // ---
+  // Vecs pinned in memory on this node
+  private static final Set<Key> PINNED = Collections.newSetFromMap(new ConcurrentHashMap<Key,Boolean>());
+
+  /** Check if the given Chunk key belongs to a pinned Vec. */
+  static boolean isPinned(Key chunkKey) {
+    return !PINNED.isEmpty() && chunkKey.isChunkKey() && PINNED.contains(Vec.getVecKey(chunkKey));
+  }
+
+  /** Forget the pin of a Vec removed from this node. */
+  public static void unpin(Key vecKey) { PINNED.remove(vecKey); }
+
+  /** Pin (or unpin) all the Vecs of a Frame in memory, on all nodes.  Pinned
+   *  Chunks are never swapped out nor dropped by the Cleaner; use sparingly,
+   *  since pinned data can push everything else out of the cache. */
+  public static void pin(Frame fr, boolean pin) {
+    Key[] keys = new Key[fr.numCols()];
+    for( int i = 0; i < keys.length; i++ ) keys[i] = fr.vec(i)._key;
+    new PinTask(keys,pin).doAllNodes();
+  }
+
+  private static class PinTask extends MRTask<PinTask> {
+    final Key[] _vecKeys;
+    final boolean _pin;
+    PinTask(Key[] vecKeys, boolean pin) { _vecKeys = vecKeys; _pin = pin; }
+    @Override protected void setupLocal() {
+      for( Key k : _vecKeys )
+        if( _pin ) PINNED.add(k);
+        else       PINNED.remove(k);
+    }
+  }
+}
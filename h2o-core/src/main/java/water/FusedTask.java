@@ -0,0 +1,143 @@
+package water;
+
+import water.fvec.Chunk;
+import water.fvec.NewChunk;
+
+import java.util.Arrays;
+
+/**
+ * Runs a sequence of chunk-level map functions as a single pass over a
+ * Frame, instead of one MRTask pass - and one intermediate Frame in the DKV -
+ * per function.
+ *
+ * Columns are numbered as slots: the input Frame's columns come first, then
+ * the outputs of each {@link Stage} in the order the Stages were added.  A
+ * Stage reads any earlier slots and appends to NewChunks; later Stages read
+ * those NewChunks in place, as Chunks, so intermediate columns are never
+ * compressed nor put in the DKV.  Only the slots named as outputs become Vecs
+ * of the output Frame:
+ * <pre>
+ *   FusedTask ft = new FusedTask(fr.numCols());
+ *   int s = ft.add(new MyStage(new int[]{0,1}));   // Reads columns 0 and 1
+ *   ft.add(new MyOtherStage(new int[]{s}));         // Reads MyStage's output
+ *   Frame res = ft.outputs(s+1).doAll(1, Vec.T_NUM, fr).outputFrame();
+ * </pre>
+ * A pass can also end in {@link Reducer}s, which fold slots down to a small
+ * result in the manner of map/reduce, without writing any output Vecs.
+ */
+public class FusedTask extends MRTask<FusedTask> {
+  /** One chunk-level map function of a fused pass.  Like
+   *  {@link MRTask#map(Chunk[], NewChunk[])}, but over the Chunks of its
+   *  input slots and with fresh NewChunks for its outputs. */
+  public static abstract class Stage extends Iced<Stage> {
+    final int[] _in;            // Slots read
+    final int _nout;            // Slots written
+    protected Stage(int[] in, int nout) { _in = in; _nout = nout; }
+    public abstract void map(Chunk[] cs, NewChunk[] ncs);
+  }
+
+  /** Folds the Chunks of its input slots into its fields, like the map and
+   *  reduce calls of an MRTask.  Each map call is made on a fresh clone of
+   *  the Reducer as added, so the fields start out null or zero and are
+   *  allocated by map; reduce must allow for a side that never mapped. */
+  public static abstract class Reducer extends Iced<Reducer> {
+    final int[] _in;            // Slots read
+    protected Reducer(int[] in) { _in = in; }
+    public abstract void map(Chunk[] cs);
+    public abstract void reduce(Reducer r);
+  }
+
+  private final int _ncols;     // Columns of the input Frame
+  private Stage[] _stages = new Stage[0];
+  private int _nslots;
+  private int[] _outs;          // Output slots
+  private Reducer[] _reds = new Reducer[0];
+  private boolean _mapped;      // Reducers are this task's own, not the ones added
+
+  public FusedTask(int ncols) { _ncols = _nslots = ncols; }
+
+  /** Append a Stage; its inputs must be earlier slots.
+   *  @return the slot of the Stage's first output */
+  public int add(Stage st) {
+    for( int s : st._in )
+      if( s < 0 || s >= _nslots ) throw new IllegalArgumentException("Stage reads unknown slot " + s);
+    _stages = Arrays.copyOf(_stages, _stages.length + 1);
+    _stages[_stages.length - 1] = st;
+    _nslots += st._nout;
+    return _nslots - st._nout;
+  }
+
+  /** Append a Reducer of earlier slots */
+  public void add(Reducer red) {
+    for( int s : red._in )
+      if( s < 0 || s >= _nslots ) throw new IllegalArgumentException("Reducer reads unknown slot " + s);
+    _reds = Arrays.copyOf(_reds, _reds.length + 1);
+    _reds[_reds.length - 1] = red;
+  }
+
+  /** The Reducers, after the pass: folded over all rows */
+  public Reducer[] reducers() { return _reds; }
+
+  /** Name the Stage outputs making the columns of the output Frame, in order */
+  public FusedTask outputs(int... slots) {
+    boolean[] seen = new boolean[_nslots];
+    for( int s : slots ) {
+      if( s < _ncols || s >= _nslots ) throw new IllegalArgumentException("Output slot " + s + " is not a Stage output");
+      if( seen[s] ) throw new IllegalArgumentException("Output slot " + s + " named twice");
+      seen[s] = true;
+    }
+    _outs = slots;
+    return this;
+  }
+
+  // Only the input columns some Stage reads
+  @Override protected int[] readColumns() {
+    boolean[] used = new boolean[_ncols];
+    int n = 0;
+    for( Stage st : _stages )
+      for( int s : st._in )
+        if( s < _ncols && !used[s] ) { used[s] = true; n++; }
+    for( Reducer red : _reds )
+      for( int s : red._in )
+        if( s < _ncols && !used[s] ) { used[s] = true; n++; }
+    int[] cols = new int[n];
+    for( int i = 0, j = 0; i < _ncols; i++ )
+      if( used[i] ) cols[j++] = i;
+    return cols;
+  }
+
+  @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+    int nouts = _outs == null ? 0 : _outs.length;
+    assert nouts == (ncs == null ? 0 : ncs.length) : "outputs must be named before running";
+    int[] outIdx = new int[_nslots];    // Output Frame column of each slot, or -1
+    Arrays.fill(outIdx, -1);
+    for( int i = 0; i < nouts; i++ ) outIdx[_outs[i]] = i;
+    Chunk[] slots = Arrays.copyOf(cs, _nslots);
+    int s = _ncols;
+    for( Stage st : _stages ) {
+      NewChunk[] out = new NewChunk[st._nout];
+      for( int j = 0; j < out.length; j++, s++ )
+        slots[s] = out[j] = outIdx[s] >= 0 ? ncs[outIdx[s]] : new NewChunk(null, -1);
+      st.map(inputs(slots, st._in), out);
+    }
+    Reducer[] reds = new Reducer[_reds.length];
+    for( int i = 0; i < reds.length; i++ ) {
+      reds[i] = _mapped ? _reds[i] : _reds[i].clone();
+      reds[i].map(inputs(slots, reds[i]._in));
+    }
+    _reds = reds;
+    _mapped = true;
+  }
+
+  private static Chunk[] inputs(Chunk[] slots, int[] in) {
+    Chunk[] cs = new Chunk[in.length];
+    for( int i = 0; i < in.length; i++ ) cs[i] = slots[in[i]];
+    return cs;
+  }
+
+  @Override public void reduce(FusedTask t) {
+    if( !t._mapped ) return;
+    if( !_mapped ) { _reds = t._reds; _mapped = true; return; }
+    for( int i = 0; i < _reds.length; i++ ) _reds[i].reduce(t._reds[i]);
+  }
+}
@@ -1748,6 +1748,7 @@ final public class H2O {
     // If the K/V mapping is changing, let the store cleaner just overwrite.
     // If the K/V mapping is new, let the store cleaner just create
     if( old != null && val == null ) old.removePersist(); // Remove the old guy
+    if( old != null && val != null ) old.freeOffHeap(); // Return the old guy's off-heap budget
     if( val != null ) {
       Cleaner.dirty_store(); // Start storing the new guy
       if( old==null ) Scope.track_internal(key); // New Key - start tracking
@@ -42,17 +42,25 @@ public class HeartBeat extends Iced<HeartBeat> {
   private int _pojo_mem;        // POJO used as of last FullGC
   private int _free_mem;        // Free memory as of last FullGC
   private int _swap_mem;        // Swapped K/V as of last FullGC
+  private int _offheap_mem;     // K/V held in the off-heap tier
   void   set_kv_mem (long n) { _kv_mem =        (int)(n>>10); }
   void set_pojo_mem (long n) { _pojo_mem =      (int)(n>>10); }
   void set_free_mem (long n) { _free_mem =      (int)(n>>10); }
   void set_swap_mem (long n) { _swap_mem =      (int)(n>>10); }
+  void set_offheap_mem(long n){ _offheap_mem =   (int)(n>>10); }
   public long get_kv_mem  () { return ((long) _kv_mem )<<10 ; }
   public long get_pojo_mem() { return ((long)_pojo_mem)<<10 ; }
   public long get_free_mem() { return ((long)_free_mem)<<10 ; }
   public long get_swap_mem() { return ((long)_swap_mem)<<10 ; }
+  public long get_offheap_mem(){return ((long)_offheap_mem)<<10 ; }
 
   public int _keys;       // Number of LOCAL keys in this node, cached or homed
 
+  // Chunk cache behavior, see EvictionPolicy
+  public long _cache_hits;      // Chunk lookups served from memory
+  public long _cache_misses;    // Chunk lookups reloaded from off-heap or disk
+  public long _cache_evictions; // Chunks dropped from the heap by the Cleaner
+
   int _free_disk;        // Free disk (internally stored in megabyte precision)
   void set_free_disk(long n) { _free_disk = (int)(n>>20); }
   public long get_free_disk()  { return ((long)_free_disk)<<20 ; }
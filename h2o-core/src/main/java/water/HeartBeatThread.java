@@ -75,7 +75,11 @@ public class HeartBeatThread extends Thread {
       hb.set_pojo_mem(pojo_mem);
       hb.set_free_mem(free_mem);
       hb.set_swap_mem(Cleaner.Histo.swapped());
+      hb.set_offheap_mem(Cleaner.Histo.offheap());
       hb._keys = H2O.STORE.size();
+      hb._cache_hits = EvictionPolicy.hits();
+      hb._cache_misses = EvictionPolicy.misses();
+      hb._cache_evictions = EvictionPolicy.evictions();
 
       try {
         hb._system_load_average = ((Double)mbs.getAttribute(os, "SystemLoadAverage")).floatValue();
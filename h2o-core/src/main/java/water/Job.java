@@ -151,6 +151,16 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
   /** Returns last progress message. */
   public String progress_msg() { update_from_remote(); return _msg; }
 
+  /** Total bytes allocated through the MemoryManager on behalf of this Job,
+   *  summed over all nodes.  Freed arrays are not subtracted (the GC does not
+   *  tell), so this is a measure of allocation volume, not a peak.  Polls the
+   *  cloud while running; frozen once stopped. */
+  private long _allocated_total;
+  public long allocated_total() {
+    update_from_remote();
+    return isRunning() ? JobMemory.allocated(_key) : _allocated_total;
+  }
+
   /** Report new work done for this job */
   public final void update( final long newworked, final String msg) {
     if( newworked > 0 || (msg != null && !msg.equals(_msg)) ) {
@@ -296,6 +306,7 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
     @Override public void compute() { }
     @Override public void onCompletion(CountedCompleter caller) {
       new Barrier1OnCom().apply(Job.this);
+      JobMemory.collect(_key);
       _barrier = null;          // Free for GC
     }
     @Override public boolean onExceptionalCompletion(Throwable ex, CountedCompleter caller) {
@@ -308,6 +319,7 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
         } catch (Throwable t) {/* do nothing */}
         new Barrier1OnExCom(ex).apply(Job.this);
       }
+      JobMemory.collect(_key);
       _barrier = null;          // Free for GC
       return true;
     }
@@ -326,6 +338,18 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
       old._msg = old._stop_requested ? "Cancelled." : "Done.";
     }
   }
+  // Record the final memory total, collected after the Job stopped.  The Job
+  // may be gone by then.
+  static void allocated_total(Key<Job> key, long bytes) { new SetAllocatedTotal(bytes).fork(key); }
+  private static class SetAllocatedTotal extends TAtomic<Job> {
+    final long _mem;
+    SetAllocatedTotal(long mem) { _mem = mem; }
+    @Override protected Job atomic(Job job) {
+      if( job == null ) return null;
+      job._allocated_total = _mem;
+      return job;
+    }
+  }
   private static class Barrier1OnExCom extends JAtomic {
     final byte[] _dex;
     Barrier1OnExCom(Throwable ex) {
@@ -388,6 +412,7 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
     if(_worked    != remote._worked    ) differ = true;
     if(_msg       != remote._msg       ) differ = true;
     if(_max_runtime_msecs != remote._max_runtime_msecs) differ = true;
+    if(_allocated_total != remote._allocated_total) differ = true;
     if( differ )
       synchronized(this) { 
         _stop_requested = remote._stop_requested;
@@ -398,6 +423,7 @@ public final class Job<T extends Keyed> extends Keyed<Job> {
         _worked    = remote._worked    ;
         _msg       = remote._msg       ;
         _max_runtime_msecs = remote._max_runtime_msecs;
+        _allocated_total = remote._allocated_total;
       }
   }
   @Override public Class<KeyV3.JobKeyV3> makeSchema() { return KeyV3.JobKeyV3.class; }
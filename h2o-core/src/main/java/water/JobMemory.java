@@ -0,0 +1,150 @@
+package water;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import water.nbhm.NonBlockingHashMap;
+import water.util.Log;
+import water.util.PrettyPrint;
+
+/** Per-job memory accounting and admission control.
+ *  <p>
+ *  Every thread working on behalf of a {@link Job} carries the Job's key in a
+ *  thread-local; {@link MemoryManager} charges every array it hands out to
+ *  that Job.  The key follows the work into {@link MRTask}s, both local and
+ *  remote, so a Job's total counts the allocations of all its map calls on
+ *  all nodes.  Totals are per node and summed over the cloud on request.
+ *  <p>
+ *  Admission control is off unless -Dsys.ai.h2o.jobs.admission=true.  When
+ *  on, a model build reserves its estimated per-node footprint from the
+ *  shared task-memory pool before it starts and returns it when done; builds
+ *  that do not fit wait in line instead of pushing the cloud into swap.
+ *  Builds started from within another Job (CV models, grids, ensembles) run
+ *  inside their parent's reservation.
+ */
+public abstract class JobMemory {
+  static final boolean ADMISSION = Boolean.getBoolean(H2O.OptArgs.SYSTEM_PROP_PREFIX + "jobs.admission");
+
+  private static final ThreadLocal<Key<Job>> CURRENT = new ThreadLocal<>();
+  private static final NonBlockingHashMap<Key,AtomicLong> ALLOCATED = new NonBlockingHashMap<>();
+
+  /** @return the Job the current thread is working for, or null */
+  public static Key<Job> current() { return CURRENT.get(); }
+
+  /** Attribute this thread's allocations to the given Job (may be null).
+   *  @return the previous owner, to be handed back to {@link #exit} */
+  public static Key<Job> enter(Key<Job> job) {
+    Key<Job> prev = CURRENT.get();
+    if( prev != job ) CURRENT.set(job);
+    return prev;
+  }
+  public static void exit(Key<Job> prev) {
+    if( CURRENT.get() == prev ) return;
+    if( prev == null ) CURRENT.remove();
+    else CURRENT.set(prev);
+  }
+
+  /** Charge an allocation to the current thread's Job, if any */
+  static void charge(long bytes) {
+    Key<Job> job = CURRENT.get();
+    if( job == null ) return;
+    AtomicLong al = ALLOCATED.get(job);
+    if( al == null ) {
+      AtomicLong al2 = ALLOCATED.putIfAbsent(job, al = new AtomicLong());
+      if( al2 != null ) al = al2;
+    }
+    al.addAndGet(bytes);
+  }
+
+  /** Bytes allocated on this node on behalf of the Job */
+  public static long allocatedLocal(Key<Job> job) {
+    AtomicLong al = ALLOCATED.get(job);
+    return al == null ? 0 : al.get();
+  }
+
+  /** Bytes allocated over the whole cloud on behalf of the running Job, as
+   *  last collected.  Re-collected in the background at most once every
+   *  {@link #REFRESH_MS}, so polling a Job does not launch a cloud-wide task
+   *  per poll, and never blocks the caller. */
+  static long allocated(Key<Job> job) {
+    Collected c = COLLECTED.get(job);
+    if( c == null ) {
+      Collected c2 = COLLECTED.putIfAbsent(job, c = new Collected());
+      if( c2 != null ) c = c2;
+    }
+    long now = System.currentTimeMillis();
+    if( now - c._when > REFRESH_MS && c._inflight.compareAndSet(false,true) ) {
+      c._when = now;
+      new CollectTask(job,false).asyncExecOnAllNodes();
+    }
+    return c._bytes;
+  }
+  static final long REFRESH_MS = 1000;
+  private static final NonBlockingHashMap<Key,Collected> COLLECTED = new NonBlockingHashMap<>();
+  private static class Collected {
+    volatile long _bytes, _when;
+    final AtomicBoolean _inflight = new AtomicBoolean();
+  }
+
+  /** The Job stopped (done, failed or cancelled): drop its counters and
+   *  collected totals on every node, and record their final sum in the Job.
+   *  Runs in the background, so it does not hold up the completion of the
+   *  Job. */
+  static void collect(Key<Job> job) {
+    COLLECTED.remove(job);
+    new CollectTask(job,true).asyncExecOnAllNodes();
+  }
+
+  // Drop the entries of Jobs no longer running: charges from stragglers of a
+  // stopped Job, or polls racing with its stop, re-create them after the
+  // clearing CollectTask went by.
+  private static void sweep(NonBlockingHashMap<Key,?> map) {
+    for( Key k : map.keySet() ) {
+      Value val = DKV.get(k);
+      if( val == null || !((Job)val.get()).isRunning() ) map.remove(k);
+    }
+  }
+
+  private static class CollectTask extends MRTask<CollectTask> {
+    final Key<Job> _job;
+    final boolean _clear;
+    long _bytes;
+    CollectTask(Key<Job> job, boolean clear) { _job = job; _clear = clear; }
+    @Override protected void setupLocal() {
+      AtomicLong al = _clear ? ALLOCATED.remove(_job) : ALLOCATED.get(_job);
+      if( al != null ) _bytes = al.get();
+      if( _clear ) {
+        COLLECTED.remove(_job);
+        sweep(ALLOCATED);
+        sweep(COLLECTED);
+      }
+    }
+    @Override public void reduce(CollectTask t) { _bytes += t._bytes; }
+    @Override protected void postGlobal() {
+      if( _clear ) { Job.allocated_total(_job,_bytes); return; }
+      Collected c = COLLECTED.get(_job);
+      if( c == null ) return;   // Job stopped meanwhile
+      c._bytes = _bytes;
+      c._inflight.set(false);
+    }
+  }
+
+  // ---
+  // Admission control
+
+  /** Block until the Job's estimated per-node footprint fits into the task
+   *  memory pool, and reserve it.  Estimates larger than the whole pool are
+   *  capped, so an oversized Job still runs - just alone.
+   *  @return bytes reserved, to be handed back to {@link #release} */
+  public static long admit(Job job, long bytes) {
+    if( !ADMISSION || bytes <= 0 ) return 0;
+    bytes = Math.min(bytes, MemoryManager.TASK_MEM_MAX);
+    if( !MemoryManager.tryReserveTaskMem(bytes) ) {
+      Log.info("Job " + job._key + " waiting for " + PrettyPrint.bytes(bytes) + " of memory");
+      job.update(0,"Waiting for memory.");
+      MemoryManager.reserveTaskMem(bytes);
+      job.update(0,"Running.");
+    }
+    return bytes;
+  }
+  public static void release(long bytes) { MemoryManager.freeTaskMem(bytes); }
+}
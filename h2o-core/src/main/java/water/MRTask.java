@@ -8,6 +8,7 @@ import water.util.PrettyPrint;
 import water.fvec.Vec.VectorGroup;
 
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedDeque;
 
 /**
  * Map/Reduce style distributed computation.
@@ -179,6 +180,20 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   /** If true, run entirely local - which will pull all the data locally. */
   protected boolean _run_local;
 
+  /** Idle accumulators in {@link #accumulateByThread} mode; null otherwise */
+  transient private ConcurrentLinkedDeque<T> _accums;
+
+  /** Chunks of the work range to fetch ahead in {@link #_run_local} mode,
+   *  where the map calls read Chunks homed on other nodes. */
+  static final int PREFETCH_CHUNKS = Integer.getInteger(H2O.OptArgs.SYSTEM_PROP_PREFIX + "mr.prefetch", 8);
+
+  /** Set once the remote Chunks of this sub-range have been prefetched */
+  transient private boolean _prefetched;
+
+  /** The Job this task works for, if any; picked up from the launching
+   *  thread, and used to attribute memory allocated by map calls. */
+  Key<Job> _memJob;
+
   public String profString() { return _profile != null ? _profile.toString() : "Profiling turned off"; }
   MRProfile _profile;
 
@@ -320,6 +335,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     // last job, and the exec time & completion time of 1st job done.
     long _time1st, _done1st;
     int _size_rez0, _size_rez1; // i/o size in bytes during reduce
+    int _pfHits, _pfMisses;     // Remote chunks found cached vs fetched by the map
     MRProfile _last;
     long sumTime() { return _onCdone - (_localstart==0 ? _mapstart : _localstart); }
     void gather( MRProfile p, int size_rez ) {
@@ -330,6 +346,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
         _last           = _last._onCdone >  p._onCdone ? _last : p;
         if( first._onCdone > _done1st ) { _time1st = first.sumTime(); _done1st = first._onCdone; }
       }
+      _pfHits += p._pfHits;  _pfMisses += p._pfMisses;
       if( size_rez !=0 )        // Record i/o result size
         if( _size_rez0 == 0 ) _size_rez0=size_rez;
         else                  _size_rez1=size_rez;
@@ -340,6 +357,8 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     @Override public String toString() { return print(new StringBuilder(),0).toString(); }
     private StringBuilder print(StringBuilder sb, int d) {
       if( d==0 ) sb.append(_clz).append("\n");
+      if( d==0 && _pfHits+_pfMisses > 0 )
+        sb.append("Remote chunks: prefetch hits ").append(_pfHits).append(", misses ").append(_pfMisses).append("\n");
       for( int i=0; i<d; i++ ) sb.append("  ");
       if( _localstart != 0 ) sb.append("Node local ").append(_localdone - _localstart).append("ms, ");
       if( _last != null ) {   // Forked job?
@@ -353,6 +372,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
         sb.append("Map ").append(_mapdone - _mapstart).append("ms (prep ").append(_userstart - _mapstart);
         sb.append("ms, user ").append(_closestart-_userstart);
         sb.append("ms, closeChk ").append(_mapdone-_closestart).append("ms), ");
+        if( _pfHits+_pfMisses > 0 ) sb.append("prefetch ").append(_pfHits).append("/").append(_pfHits+_pfMisses).append(", ");
       }
       sb.append("Red ").append(_onCdone - _onCstart);
       sb.append("ms (locRed ").append(_reducedone-_onCstart).append("ms");
@@ -405,6 +425,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   public void dfork(Key... keys ) {
     _topGlobal = true;
     _keys = keys;
+    _memJob = JobMemory.current();
     _nlo = selfidx(); _nhi = (short)H2O.CLOUD.size(); // Do Whole Cloud
     setupLocal0();              // Local setup
     H2O.submitTask(this);       // Begin normal execution on a FJ thread
@@ -448,6 +469,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   public final T dfork( byte[] types, Frame fr, boolean run_local) {
     _topGlobal = true;
     _output_types = types;
+    _memJob = JobMemory.current();
     if( types != null && types.length > 0 )
       _vid = fr.anyVec().group().reserveKeys(types.length);
     _fr = fr;                   // Record vectors to work on
@@ -503,6 +525,23 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   }
 
   protected boolean modifiesVolatileVecs(){return true;}
+
+  /** Override to return true to map chunks into per-thread accumulators:
+   *  each F/J worker thread takes an idle accumulator (a clone of this task,
+   *  made on first need), maps chunk after chunk into it, and the node
+   *  reduces each accumulator once at the end - instead of mapping every
+   *  chunk into a fresh clone reduced up the divide-and-conquer tree.  Cuts
+   *  allocation and reduce time for tasks carrying large state, e.g. Gram
+   *  matrices.  The map calls must add to the task's fields rather than
+   *  overwrite them, allocating them only while still null.  Ignored for
+   *  tasks making output Vecs.  */
+  protected boolean accumulateByThread(){return false;}
+
+  /** Override to return the indices of the columns of the input Frame that
+   *  the map calls read.  Only their Chunks are loaded - the other columns
+   *  are not unswapped or fetched, and are null in the Chunk array passed to
+   *  map.  Null, the default, loads all columns.  */
+  protected int[] readColumns(){return null;}
   /*
    * Set top-level fields and fire off remote work (if there is any to do) to 2 selected
    * child JVM/nodes. Setup for local work: fire off any global work to cloud neighbors; do all
@@ -518,6 +557,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
         if(v.isVolatile())v.preWriting();
     }
     _topLocal = true;
+    _accums = accumulateByThread() && _output_types == null ? new ConcurrentLinkedDeque<T>() : null;
     // Check for global vs local work
     int selfidx = selfidx();
     int nlo = subShift(selfidx);
@@ -547,7 +587,8 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     }
     // Setup any user's shared local structures for both normal cluster nodes
     // and any client; want this for possible reduction ONTO client
-    setupLocal();
+    Key<Job> prevJob = JobMemory.enter(_memJob);
+    try { setupLocal(); } finally { JobMemory.exit(prevJob); }
     if(_profile!=null) _profile._localdone = System.currentTimeMillis();
   }
 
@@ -580,6 +621,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   @Override public final void compute2() {
     assert _left == null && _rite == null && _res == null;
     if(_profile!=null) _profile._mapstart = System.currentTimeMillis();
+    if( !_prefetched && _hi-_lo <= PREFETCH_CHUNKS ) prefetch();
     if( (_hi-_lo) >= 2 ) { // Multi-chunk case: just divide-and-conquer to 1 chunk
       final int mid = (_lo+_hi)>>>1; // Mid-point
       _left = copyAndInit();
@@ -593,13 +635,23 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
       return;                   // Not complete until the fork completes
     }
     // Zero or 1 chunks, and further chunk might not be homed here
+    Key<Job> prevJob = JobMemory.enter(_memJob);
+    try { compute2Leaf(); } finally { JobMemory.exit(prevJob); }
+    if(_profile!=null)
+      _profile._mapdone = System.currentTimeMillis();
+    tryComplete();
+  }
+
+  // Map over a single Chunk (or Key, or node)
+  private void compute2Leaf() {
     if( _fr==null ) {           // No Frame, so doing Keys?
       if( _keys == null ||     // Once-per-node mode
           _hi > _lo && _keys[_lo].home() ) {
         assert(_keys == null || !H2O.ARGS.client) : "Client node should not process any keys in MRTask!";
         if(_profile!=null) _profile._userstart = System.currentTimeMillis();
-        if( _keys != null ) map(_keys[_lo]);
-        _res = self();        // Save results since called map() at least once!
+        T acc = takeAccumulator();
+        if( _keys != null ) acc.map(_keys[_lo]);
+        saveResults(acc);
         if(_profile!=null) _profile._closestart = System.currentTimeMillis();
       }
     } else if( _hi > _lo ) {    // Frame, Single chunk?
@@ -611,12 +663,16 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
         Vec vecs[] = _fr.vecs();
         Chunk bvs[] = new Chunk[vecs.length];
         NewChunk [] appendableChunks = null;
-        for( int i=0; i<vecs.length; i++ )
+        int[] cols = readColumns();
+        for( int j=0; j<(cols == null ? vecs.length : cols.length); j++ ) {
+          int i = cols == null ? j : cols[j];
           if( vecs[i] != null ) {
             assert _run_local || vecs[i].chunkKey(_lo).home()
               : "Chunk="+_lo+" v0="+v0+", k="+v0.chunkKey(_lo)+"   v["+i+"]="+vecs[i]+", k="+vecs[i].chunkKey(_lo);
+            if( _profile != null && _run_local ) countPrefetch(vecs[i].chunkKey(_lo));
             bvs[i] = vecs[i].chunkForChunkIdx(_lo);
           }
+        }
 
         if(_output_types != null) {
           final VectorGroup vg = vecs[0].group();
@@ -633,11 +689,12 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
 
         int num_fr_vecs = _fr.vecs().length;
         int num_outputs = _output_types == null? 0 : _output_types.length;
+        T acc = takeAccumulator(); // Self, unless accumulating by thread
         if (num_outputs == 0) {
-          if (num_fr_vecs == 1) map(bvs[0]);
-          else if (num_fr_vecs == 2) map(bvs[0], bvs[1]);
-          else if (num_fr_vecs == 3) map(bvs[0], bvs[1], bvs[2]);
-          map(bvs);
+          if (num_fr_vecs == 1) acc.map(bvs[0]);
+          else if (num_fr_vecs == 2) acc.map(bvs[0], bvs[1]);
+          else if (num_fr_vecs == 3) acc.map(bvs[0], bvs[1], bvs[2]);
+          acc.map(bvs);
         }
         else if (num_outputs == 1) {  // convenience versions for cases with single output.
           assert appendableChunks != null;
@@ -654,19 +711,62 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
           map(bvs, appendableChunks[0], appendableChunks[1]);
         }
         if (num_outputs >= 0)
-          map(bvs, appendableChunks);
+          acc.map(bvs, appendableChunks);
 
-        _res = self();          // Save results since called map() at least once!
+        saveResults(acc);
         // Further D/K/V put any new vec results.
         if(_profile!=null)
           _profile._closestart = System.currentTimeMillis();
-        for( Chunk bv : bvs )  bv.close(_lo,_fs);
+        for( Chunk bv : bvs )  if( bv != null ) bv.close(_lo,_fs);
         if( _output_types != null) for(NewChunk nch:appendableChunks)nch.close(_lo, _fs);
       }
     }
-    if(_profile!=null)
-      _profile._mapdone = System.currentTimeMillis();
-    tryComplete();
+  }
+
+  // Start fetching the remote Chunks of the range [_lo,_hi) in the
+  // background, once per sub-range of at most PREFETCH_CHUNKS chunks; the
+  // copies made by splitting the range inherit the flag.  Only the chunks
+  // this node maps are fetched.  Duplicate fetches of a Key in flight are
+  // folded by TaskGetKey.
+  private void prefetch() {
+    _prefetched = true;
+    if( _fr == null || !_run_local || _fr.numCols() == 0 ) return;
+    Vec vecs[] = _fr.vecs();
+    int[] cols = readColumns();
+    for( int c = _lo; c < _hi; c++ )
+      for( int j=0; j<(cols == null ? vecs.length : cols.length); j++ ) {
+        Vec v = vecs[cols == null ? j : cols[j]];
+        if( v == null ) continue;
+        Key k = v.chunkKey(c);
+        if( !k.home() && Value.STORE_get(k) == null ) DKV.prefetch(k);
+      }
+  }
+
+  // Profile a remote chunk load as a prefetch hit (already cached) or miss
+  private void countPrefetch(Key k) {
+    if( k.home() ) return;
+    Value val = Value.STORE_get(k);
+    if( val != null && (val.rawMem() != null || val.rawPOJO() != null) ) _profile._pfHits++;
+    else _profile._pfMisses++;
+  }
+
+  // The task to map into: self, or in accumulateByThread mode an idle
+  // accumulator - most likely the one this thread used last.
+  private T takeAccumulator() {
+    if( _accums == null ) return self();
+    T acc = _accums.pollFirst();
+    if( acc == null ) {
+      acc = copyAndInit();
+      acc.setCompleter(null);   // Never forked; only mapped into
+    }
+    return acc;
+  }
+
+  // Having called map() at least once, save the results: in self, or by
+  // returning the accumulator for reduction at the end of the local work
+  private void saveResults(T acc) {
+    if( _accums == null ) _res = self();
+    else _accums.offerFirst(acc);
   }
 
   /** OnCompletion - reduce the left and right into self.  Called internal by
@@ -705,6 +805,10 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   // Block for other queued pending tasks.
   // Copy any final results into 'this', such that a return of 'this' has the results.
   private void postLocal0() {
+    if( _accums != null )       // Reduce each per-thread accumulator once
+      for( T acc; (acc = _accums.pollFirst()) != null; )
+        if( _res == null ) _res = acc;
+        else _res.reduce4(acc);
     closeLocal();               // User's node-local cleanup
     if(_profile!=null) _profile._closeLocalDone = System.currentTimeMillis();
     reduce3(_nleft);            // Reduce global results from neighbors.
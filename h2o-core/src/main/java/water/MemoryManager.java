@@ -1,6 +1,7 @@
 package water;
 
 import java.lang.management.*;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.management.Notification;
@@ -62,6 +63,12 @@ abstract public class MemoryManager {
   // Lock for blocking on allocations
   private static final Object _lock = new Object();
 
+  // Allocations blocked waiting on the Cleaner to swap, and total time blocked
+  static final AtomicLong STALL_COUNT = new AtomicLong();
+  static final AtomicLong STALL_NS = new AtomicLong();
+  public static long stallCount() { return STALL_COUNT.get(); }
+  public static long stallNanos() { return STALL_NS.get(); }
+
   // A monotonically increasing total count memory allocated via MemoryManager.
   // Useful in tracking total memory consumed by algorithms - just ask for the
   // before & after amounts and diff them.
@@ -226,6 +233,7 @@ abstract public class MemoryManager {
     // Do not assert on large-size here.  RF's temp internal datastructures are
     // single very large arrays.
     //assert bytes < Value.MAX : "malloc size=0x"+Long.toHexString(bytes);
+    JobMemory.charge(bytes);    // Attribute to the Job this thread works for
     while( true ) {
       if( (!MEM_LOW_CRITICAL && !force) && !CAN_ALLOC && // Not allowing allocations?
           bytes > 256 &&        // Allow tiny ones in any case
@@ -233,9 +241,12 @@ abstract public class MemoryManager {
           // case.  This is probably an allocation for logging (ouch! shades of
           // logging-induced deadlock!) which will probably be recycled quickly.
           !(Thread.currentThread() instanceof Cleaner) ) {
+        long start = System.nanoTime();
         synchronized(_lock) {
           try { _lock.wait(300*1000); } catch (InterruptedException ex) { }
         }
+        STALL_COUNT.incrementAndGet();
+        STALL_NS.addAndGet(System.nanoTime() - start);
       }
       try {
         switch( type ) {
@@ -297,8 +308,42 @@ abstract public class MemoryManager {
   public static long   [] arrayCopyOf( long  [] orig, int sz) { return arrayCopyOfRange(orig,0,sz); }
   public static double [] arrayCopyOf( double[] orig, int sz) { return arrayCopyOfRange(orig,0,sz); }
 
+  // ---
+  // Off-heap tier for Chunk bytes.  Cold Chunks evicted by the Cleaner can be
+  // parked in direct memory instead of on the heap (where every FullGC has to
+  // scan them) or on disk (where they cost i/o to spill & reload).  Disabled
+  // unless a budget is given with -Dsys.ai.h2o.offheap.max=<bytes>; the JVM
+  // must also allow at least that much -XX:MaxDirectMemorySize.
+  static volatile long OFFHEAP_MAX = Long.getLong(H2O.OptArgs.SYSTEM_PROP_PREFIX + "offheap.max", 0);
+  static final AtomicLong OFFHEAP_USED = new AtomicLong();
+  public static long offHeapUsed() { return OFFHEAP_USED.get(); }
+  public static long offHeapMax () { return OFFHEAP_MAX; }
+
+  /** Allocate an off-heap buffer of the given size, or return null if the
+   *  off-heap tier is disabled or its budget is exhausted.  Never blocks: the
+   *  caller (normally the Cleaner) falls back to spilling to disk.  */
+  static ByteBuffer mallocOffHeap(int bytes) {
+    if( OFFHEAP_USED.addAndGet(bytes) > OFFHEAP_MAX ) {
+      OFFHEAP_USED.addAndGet(-bytes);
+      return null;
+    }
+    try {
+      return ByteBuffer.allocateDirect(bytes);
+    } catch( OutOfMemoryError e ) { // Direct memory limit below our budget
+      OFFHEAP_USED.addAndGet(-bytes);
+      return null;
+    }
+  }
+  /** True if the off-heap tier is nearly full: the Cleaner then spills its
+   *  coldest Values on to disk, keeping room for Chunks leaving the heap. */
+  static boolean offHeapFull() { return OFFHEAP_MAX > 0 && OFFHEAP_USED.get() > OFFHEAP_MAX - (OFFHEAP_MAX>>3); }
+  /** Return the budget of an off-heap buffer no longer referenced by a Value.
+   *  The direct memory itself is reclaimed by the GC along with the buffer. */
+  static void freeOffHeap(int bytes) { OFFHEAP_USED.addAndGet(-bytes); }
+
   // Memory available for tasks (we assume 3/4 of the heap is available for tasks)
-  static final AtomicLong _taskMem = new AtomicLong(MEM_MAX-(MEM_MAX>>2));
+  static final long TASK_MEM_MAX = MEM_MAX-(MEM_MAX>>2);
+  static final AtomicLong _taskMem = new AtomicLong(TASK_MEM_MAX);
 
   /**
    * Try to reserve memory needed for task execution and return true if
@@ -330,10 +375,11 @@ abstract public class MemoryManager {
     while(!tryReserveTaskMem(bytes)){
       try {
         ForkJoinPool.managedBlock(new ManagedBlocker() {
-          @Override public boolean isReleasable() {return _taskMem.get() >= bytes;}
+          @Override public boolean isReleasable() {return CAN_ALLOC && _taskMem.get() >= bytes;}
           @Override public boolean block() throws InterruptedException {
             synchronized(_taskMemLock){
-              try {_taskMemLock.wait();} catch( InterruptedException e ) {}
+              // Timed: nobody notifies when CAN_ALLOC flips back to true
+              try {_taskMemLock.wait(1000);} catch( InterruptedException e ) {}
             }
             return isReleasable();
           }
@@ -0,0 +1,88 @@
+package water;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import water.util.Log;
+
+/** Write-behind swap-to-disk for the {@link Cleaner}.
+ *
+ *  The Cleaner hands Chunks it wants spilled to a small pool of writer
+ *  threads through a bounded queue, and goes on sweeping the K/V store
+ *  instead of blocking on every single disk write.  Writers drain the queue
+ *  in batches, so a burst of small Values costs one wakeup and not one per
+ *  Value.  If the queue is full the Cleaner writes synchronously, which
+ *  gives natural back-pressure when the disk cannot keep up.
+ *
+ *  Disabled (fully synchronous swapping, as before) unless the number of
+ *  writers is set with -Dsys.ai.h2o.swap.writers=N. */
+class SwapWriter extends Thread {
+  static final int NWRITERS = Integer.getInteger(H2O.OptArgs.SYSTEM_PROP_PREFIX + "swap.writers", 0);
+  static final int QUEUE_SIZE = Integer.getInteger(H2O.OptArgs.SYSTEM_PROP_PREFIX + "swap.queue", 1024);
+  private static final int BATCH = 64;
+
+  private static final ArrayBlockingQueue<Value> QUEUE = new ArrayBlockingQueue<>(Math.max(QUEUE_SIZE,1));
+  private static volatile boolean DISK_FAILED;
+
+  static {
+    for( int i=0; i<NWRITERS; i++ )
+      new SwapWriter(i).start();
+  }
+
+  private SwapWriter(int idx) {
+    super("SwapWriter-"+idx);
+    setDaemon(true);
+    setPriority(MAX_PRIORITY-2);
+  }
+
+  /** Queue a Value for write-behind.  Returns false if the Value should be
+   *  written synchronously instead: write-behind is off, the queue is full, or
+   *  the last asynchronous write failed.  Only called by the Cleaner. */
+  static boolean offer( Value val ) {
+    if( NWRITERS == 0 || DISK_FAILED ) return false;
+    val._swapping = true;       // Cleaner skips it until the write completes
+    if( QUEUE.offer(val) ) return true;
+    val._swapping = false;
+    return false;
+  }
+
+  /** Report (and reset) a failed asynchronous write; the Cleaner then treats
+   *  the disk as full, exactly like a failed synchronous write. */
+  static boolean diskFailed() {
+    boolean b = DISK_FAILED;
+    DISK_FAILED = false;
+    return b;
+  }
+
+  @Override public void run() {
+    ArrayList<Value> batch = new ArrayList<>(BATCH);
+    while( true ) {
+      try { batch.add(QUEUE.take()); } catch( InterruptedException ignore ) { continue; }
+      QUEUE.drainTo(batch,BATCH-1);
+      long freed = 0;
+      for( Value val : batch ) {
+        try {
+          val.storePersist();
+          // Under memory pressure, free the heap copies as soon as they hit
+          // disk rather than waiting for the next Cleaner sweep.
+          if( !MemoryManager.CAN_ALLOC && val.isPersisted() ) {
+            val.freeMem();
+            val.freePOJO();
+            EvictionPolicy.EVICTIONS.incrementAndGet();
+            freed += val._max;
+          }
+        } catch( FileNotFoundException ignore ) { // Racing key delete/remove
+        } catch( IOException e ) {
+          DISK_FAILED = true;
+          // No logging if under memory pressure: can deadlock
+          if( MemoryManager.canAlloc() ) Log.warn("Disk swapping failed! " + e.getMessage());
+        } finally {
+          val._swapping = false;
+        }
+      }
+      batch.clear();
+      if( freed > 0 ) Cleaner.kick_store_cleaner(); // Recompute goals & maybe unblock allocations
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package water;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import jsr166y.ForkJoinPool;
@@ -97,31 +98,106 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   /** Invalidate byte[] cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
   public final void freeMem() {
-    assert isPersisted() || _pojo != null || _key.isChunkKey();
+    assert isPersisted() || isOffHeap() || _pojo != null || _key.isChunkKey();
     _mem = null;
   }
   /** Invalidate POJO cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
   public final void freePOJO() {
-    assert isPersisted() || _mem != null;
+    assert isPersisted() || isOffHeap() || _mem != null;
     _pojo = null;
   }
 
+  // ---
+  // An off-heap copy of the _mem array, or null.  Set by the Cleaner when it
+  // evicts a Chunk from the heap and the off-heap tier has room (see
+  // MemoryManager.OFFHEAP_MAX), in which case _mem and _pojo are dropped.
+  // Kept when the bytes are reloaded onto the heap, so a hot Chunk leaves the
+  // heap again for free, like a persisted one; cleared when the Value is
+  // replaced, deleted or spilled to disk.
+  private transient volatile ByteBuffer _offheap;
+  private static final AtomicReferenceFieldUpdater<Value,ByteBuffer> OFFHEAP_UPDATER =
+    AtomicReferenceFieldUpdater.newUpdater(Value.class,ByteBuffer.class, "_offheap");
+  /** Check if the serialized bytes are held in the off-heap tier */
+  public final boolean isOffHeap() { return _offheap != null; }
+
+  /** Move the byte[] form of this Value to the off-heap tier, dropping both
+   *  the byte[] and the POJO from the heap.  Only called by the Cleaner.
+   *  @return false if there is nothing to move or no off-heap space left */
+  boolean storeOffHeap() {
+    byte[] mem = _mem;          // Read once!
+    if( mem == null || _offheap != null || isDeleted() ) return false;
+    ByteBuffer bb = MemoryManager.mallocOffHeap(mem.length);
+    if( bb == null ) return false; // Off-heap tier disabled or full
+    bb.put(mem).flip();
+    // Publish the off-heap copy BEFORE dropping the heap copies, so racing
+    // readers always find at least one of them.
+    _offheap = bb;
+    _pojo = null;
+    _mem = null;
+    if( isDeleted() ) freeOffHeap(); // Close race with deleting user thread
+    return true;
+  }
+  // Copy the off-heap bytes back into a fresh heap byte[], keeping the
+  // off-heap copy.  Racing reloads each make a private copy.
+  private byte[] loadOffHeap( ByteBuffer bb ) {
+    byte[] mem = MemoryManager.malloc1(bb.capacity());
+    bb.duplicate().get(mem);    // Private position/limit; bb itself is shared
+    return _mem = mem;
+  }
+
+  /** Write an off-heap Value to disk and release its off-heap copy, making
+   *  room in the off-heap tier for Chunks leaving the heap.  Only called by
+   *  the Cleaner.
+   *  @return true if the Value is now on disk only */
+  boolean spillOffHeap() throws java.io.IOException {
+    storePersist();             // Writes the bytes reloaded from off-heap
+    if( !isPersisted() ) return false; // Replaced or deleted meanwhile
+    freeOffHeap();
+    freeMem();
+    freePOJO();
+    return true;
+  }
+  // Release the off-heap copy, if any, returning its budget.  Racing readers
+  // still holding the buffer keep reading it; the GC reclaims it after them.
+  void freeOffHeap() {
+    ByteBuffer bb = _offheap;
+    if( bb != null && OFFHEAP_UPDATER.compareAndSet(this,bb,null) )
+      MemoryManager.freeOffHeap(bb.capacity());
+  }
+
+  // ---
+  // Rollups of a Chunk Value, computed from its bytes on its home node and
+  // kept with it (see water.fvec.RollupStats): they live exactly as long as
+  // this Value, and are not recomputed until the Chunk is written again.
+  private transient volatile Iced _rollups;
+  /** @return the rollups kept with this Chunk Value, or null */
+  public final Iced rollups() { return _rollups; }
+  public final void setRollups(Iced rs) { _rollups = rs; }
+
   /** The FAST path get-byte-array - final method for speed.  Will (re)build
    *  the mem array from either the POJO or disk.  Never returns NULL.
    *  @return byte[] holding the serialized POJO  */
   public final byte[] memOrLoad() {
     byte[] mem = _mem;          // Read once!
-    if( mem != null ) return mem;
+    if( mem != null ) { countHit(); return mem; }
     Freezable pojo = _pojo;     // Read once!
-    if( pojo != null )          // Has the POJO, make raw bytes
+    if( pojo != null ) {        // Has the POJO, make raw bytes
+      countHit();
       return _mem = pojo.asBytes();
+    }
     if( _max == 0 ) return (_mem = new byte[0]);
+    if( _key != null && _key.isChunkKey() ) EvictionPolicy.MISSES.increment();
+    ByteBuffer bb = _offheap;   // Read once!
+    if( bb != null ) return loadOffHeap(bb);
+    if( (mem = _mem) != null ) return mem; // Lost a race with another off-heap reload
     return (_mem = loadPersist());
   }
+  // Chunk cache hits; other Values are not interesting for eviction stats
+  private void countHit() { if( _key != null && _key.isChunkKey() ) EvictionPolicy.HITS.increment(); }
   // Just an empty shell of a Value, no local data but the Value is "real".
   // Any attempt to look at the Value will require a remote fetch.
-  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && !isPersisted(); }
+  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && _offheap == null && !isPersisted(); }
 
   /** The FAST path get-POJO as an {@link Iced} subclass - final method for
    *  speed.  Will (re)build the POJO from the _mem array.  Never returns NULL.
@@ -129,7 +205,7 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   public final <T extends Iced> T get() {
     touch();
     Iced pojo = (Iced)_pojo;    // Read once!
-    if( pojo != null ) return (T)pojo;
+    if( pojo != null ) { countHit(); return (T)pojo; }
     pojo = TypeMap.newInstance(_type);
     return (T)(_pojo = pojo.reloadFromBytes(memOrLoad()));
   }
@@ -148,16 +224,27 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   public final <T extends Freezable> T getFreezable() {
     touch();
     Freezable pojo = _pojo;     // Read once!
-    if( pojo != null ) return (T)pojo;
+    if( pojo != null ) { countHit(); return (T)pojo; }
     pojo = TypeMap.newFreezable(_type);
     pojo.reloadFromBytes(memOrLoad());
     return (T)(_pojo = pojo);
   }
 
   // ---
-  // Time of last access to this value.
+  // Time of last access to this value, and of the access before that (0 if
+  // none).  Accesses closer together than CORRELATED_MS are one reference
+  // (e.g. several lookups of the same Chunk within one pass), as far as the
+  // previous-access time is concerned.  See EvictionPolicy.
   transient long _lastAccessedTime = System.currentTimeMillis();
-  private void touch() {_lastAccessedTime = System.currentTimeMillis();}
+  transient long _prevAccessedTime;
+  private static final long CORRELATED_MS = 1000;
+  private void touch() {
+    long now = System.currentTimeMillis();
+    if( now - _lastAccessedTime > CORRELATED_MS ) _prevAccessedTime = _lastAccessedTime;
+    _lastAccessedTime = now;
+  }
+  public long lastAccessedTime() { return _lastAccessedTime; }
+  public long prevAccessedTime() { return _prevAccessedTime; }
   // Exposed and used for testing only; used to trigger premature cleaning/disk-swapping
   void touchAt(long time) {_lastAccessedTime = time;}
 
@@ -193,6 +280,16 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   public final void setDel() { _deleted=1; } // note: not atomic, but only monotonically set bit
 
 
+  // Set while a SwapWriter owns the (asynchronous) write of this Value to
+  // disk; the Cleaner leaves it alone in the meantime.
+  transient volatile boolean _swapping;
+
+  // Writes of one Key are serialized.  The ice file is named by the Key, so a
+  // late write-behind of a Value already replaced in the store would clobber
+  // the file of the newer Value.
+  private static final Object[] PERSIST_LOCKS = new Object[64];
+  static { for( int i=0; i<PERSIST_LOCKS.length; i++ ) PERSIST_LOCKS[i] = new Object(); }
+
   /** Best-effort store complete Values to disk.  */
   void storePersist() throws java.io.IOException {
     // 00       then start writing
@@ -201,16 +298,36 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     // 11       already written & deleted; do nothing
     if( isDeleted() ) return;   // 01 and 11 cases
     if( isPersisted() ) return; // 10 case
-    H2O.getPM().store(backend(), this); // Write to disk
+    synchronized( PERSIST_LOCKS[(_key.hashCode()&0x7FFFFFFF)%PERSIST_LOCKS.length] ) {
+      if( H2O.STORE.get(_key) != this ) return; // Stale: replaced or removed; do not write
+      H2O.getPM().store(backend(), this); // Write to disk
+      if( H2O.STORE.get(_key) != this ) { // Replaced during the write
+        H2O.getPM().delete(backend(), this); // The newer Value writes its own, later
+        return;
+      }
+
+      // 00 -> 10 expected, set write bit
+      // 10       assert; only Cleaner (or the one SwapWriter it handed off to) writes
+      // 01       delete-during-write; delete again
+      // 11       assert; only Cleaner (or the one SwapWriter it handed off to) writes
+      assert !isPersisted();    // Only Cleaner writes
+      setDsk(); // Not locked, not atomic, so can only called by one thread: Cleaner or its SwapWriter
+      if( isDeleted() ) // Check del bit AFTER setting persist bit; close race with deleting user thread
+        H2O.getPM().delete(backend(), this); // Possibly nothing to delete (race with writer)
+    }
+  }
 
-    // 00 -> 10 expected, set write bit
-    // 10       assert; only Cleaner writes
-    // 01       delete-during-write; delete again
-    // 11       assert; only Cleaner writes
-    assert !isPersisted();      // Only Cleaner writes
-    setDsk(); // Not locked, not atomic, so can only called by one thread: Cleaner
-    if( isDeleted() ) // Check del bit AFTER setting persist bit; close race with deleting user thread
-      H2O.getPM().delete(backend(), this); // Possibly nothing to delete (race with writer)
+  /** Write this Value to disk now and free its heap copies, by the same path
+   *  as the Cleaner's swapping; the next get reloads it.  For bulk data that
+   *  is written once and read back once, like spilled partitions.  */
+  public final void spill() throws java.io.IOException {
+    _swapping = true;           // Cleaner skips it meanwhile
+    try {
+      storePersist();
+      if( isPersisted() ) { freeMem(); freePOJO(); }
+    } finally {
+      _swapping = false;
+    }
   }
 
   /** Remove dead Values from disk */
@@ -221,6 +338,7 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     // 01       double delete; do nothing
     // 10 -> 11 delete
     // 11       double delete; do nothing
+    freeOffHeap();              // Off-heap copy is not backend-specific
     if( !onICE() ) return;      // Wrong filestore?
     if( isDeleted() ) return;   // Already deleted?
     setDel();                   // Set del bit BEFORE testing isPersist
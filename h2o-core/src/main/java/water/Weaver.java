@@ -158,6 +158,44 @@ public class Weaver {
     }.doAllNodes();
   }
 
+  /**
+   * Compile and load a class from Java source, for code generated at
+   * runtime.  The source is limited to what javassist compiles: no generics,
+   * boxing, or inner-class names.  The class is defined in the given
+   * {@link GenLoader}, and dropped from the ClassPool once loaded; it can be
+   * unloaded once nothing refers to it or its loader.
+   *
+   * @param loader loader to define the class in
+   * @param name class name, unique per loader
+   * @param superName name of a public superclass, with a public no-arg constructor
+   * @param methods source of each method
+   * @return the loaded class
+   */
+  public static Class genClass(GenLoader loader, String name, String superName, String... methods) {
+    try {
+      CtClass cc = _pool.makeClass(name);
+      try {
+        cc.setSuperclass(_pool.get(superName));
+        cc.setModifiers(javassist.Modifier.PUBLIC);
+        cc.addConstructor(CtNewConstructor.defaultConstructor(cc));
+        for( String m : methods ) addMethod(m,cc);
+        return loader.define(name,cc.toBytecode());
+      } finally {
+        cc.detach();
+      }
+    } catch( NotFoundException | CannotCompileException | java.io.IOException e ) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /** Throwaway ClassLoader for classes generated by {@link #genClass}.
+   *  Classes are collected together with their loader, so code generated
+   *  and later dropped does not hold on to metaspace. */
+  public static class GenLoader extends ClassLoader {
+    public GenLoader() { super(Weaver.class.getClassLoader()); }
+    Class define(String name, byte[] b) { return defineClass(name,b,0,b.length); }
+  }
+
   private static class LoadClazz extends DTask<LoadClazz> {
     private final String _name;
     private final byte[] _bytes;
@@ -136,10 +136,19 @@ public class CloudV3 extends RequestSchemaV3<Iced, CloudV3> {
     public long max_mem;
     @API(help="Size of data on node's disk", direction=API.Direction.OUTPUT)
     public long swap_mem;
+    @API(help="Size of data held off-heap", direction=API.Direction.OUTPUT)
+    public long offheap_mem;
 
     @API(help="#local keys", direction=API.Direction.OUTPUT)
     public int num_keys;
 
+    @API(help="Chunk lookups served from memory", direction=API.Direction.OUTPUT)
+    public long cache_hits;
+    @API(help="Chunk lookups reloaded from off-heap memory or disk", direction=API.Direction.OUTPUT)
+    public long cache_misses;
+    @API(help="Chunks evicted from the heap", direction=API.Direction.OUTPUT)
+    public long cache_evictions;
+
     @API(help="Free disk", direction=API.Direction.OUTPUT)
     public long free_disk;
     @API(help="Max disk", direction=API.Direction.OUTPUT)
@@ -183,8 +192,12 @@ public class CloudV3 extends RequestSchemaV3<Iced, CloudV3> {
       pojo_mem = hb.get_pojo_mem();
       free_mem = hb.get_free_mem();
       swap_mem = hb.get_swap_mem();
+      offheap_mem = hb.get_offheap_mem();
       max_mem = pojo_mem + free_mem + mem_value_size;
       num_keys = hb._keys;
+      cache_hits = hb._cache_hits;
+      cache_misses = hb._cache_misses;
+      cache_evictions = hb._cache_evictions;
 
       // Disk health
       free_disk = hb.get_free_disk();
@@ -34,6 +34,9 @@ public class JobV3 extends SchemaV3<Job, JobV3> {
   @API(help="Runtime in milliseconds", direction=API.Direction.OUTPUT)
   public long msec;
 
+  @API(help="Total bytes allocated on behalf of this job, over all nodes; freed memory is not subtracted, so this is not a peak", direction=API.Direction.OUTPUT)
+  public long allocated_total;
+
   @API(help="destination key", direction=API.Direction.INOUT)
   public KeyV3 dest;
 
@@ -89,6 +92,7 @@ public class JobV3 extends SchemaV3<Job, JobV3> {
       stacktrace = sw.toString();
     }
     msec = job.msec();
+    allocated_total = job.allocated_total();
     ready_for_view = job.readyForView();
 
     Keyed dest_type = (Keyed)TypeMap.theFreezable(job._typeid);
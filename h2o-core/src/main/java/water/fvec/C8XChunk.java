@@ -0,0 +1,193 @@
+package water.fvec;
+
+import water.H2O;
+import water.util.UnsafeUtils;
+
+/**
+ * The XOR compression function for doubles (as in Facebook's Gorilla): each
+ * value is XOR'd with the previous one, and only the meaningful bits of the
+ * difference are stored.  Slowly changing real-valued columns - sensor
+ * readings, prices - share sign, exponent and high mantissa bits from row to
+ * row, and pack to a fraction of the 8 bytes per row of a {@link C8DChunk}.
+ *
+ * Rows are grouped in blocks of 64, each starting over from a raw 64-bit
+ * value, so any row is at most 63 steps of decoding away.  The last decoded
+ * block is cached, so in-order access costs O(1) per row.  Chosen by
+ * {@link NewChunk} when it saves at least -Dsys.ai.h2o.chunk.xor.saving of
+ * the C8D size (default 0.25; set to 1 to disable).
+ *
+ * Layout: 4 bytes _len; then the byte offset of each block's bit stream as
+ * 4-byte ints; then the bit streams, each starting on a byte boundary; then
+ * 8 pad bytes so that any code can be read with a single 8-byte load.
+ * Within a block bits are laid out least-significant first.  A value
+ * identical to the previous one is a single 0 bit; otherwise a 1 bit, then
+ * either 0 and the meaningful bits in the previous window, or 1, 6 bits of
+ * leading zeros, 6 bits of meaningful length-1, and the meaningful bits.
+ */
+public class C8XChunk extends Chunk {
+  static final double MIN_SAVING = Double.parseDouble(System.getProperty(H2O.OptArgs.SYSTEM_PROP_PREFIX + "chunk.xor.saving", "0.25"));
+  static final int LOG_BLOCK = 6;
+  static final int BLOCK = 1<<LOG_BLOCK;
+  static final int _OFF = 4;
+
+  // Last decoded block, and the thread that decoded it.  Only that thread
+  // reads it, and decodes the next block into the same array; another thread
+  // takes over the cache with a Block of its own.
+  private static final class Block {
+    final Thread _owner = Thread.currentThread();
+    final double[] _ds = new double[BLOCK];
+    int _b = -1;
+  }
+  private transient Block _blk;
+
+  C8XChunk(byte[] bs) { _mem = bs; initFromBytes(); }
+
+  static int nblocks(int len) { return (len+BLOCK-1)>>LOG_BLOCK; }
+
+  /** XOR-encode len doubles, stored 8 bytes each in ds.  Writes into out
+   *  (which must be zeroed) or, if out is null, just computes the size.
+   *  @return size in bytes of the encoded chunk */
+  static int encode(byte[] ds, int len, byte[] out) {
+    final int nblocks = nblocks(len);
+    int off = _OFF + (nblocks<<2);
+    if( out != null ) UnsafeUtils.set4(out,0,len);
+    for( int b = 0; b < nblocks; b++ ) {
+      if( out != null ) UnsafeUtils.set4(out,_OFF+(b<<2),off);
+      int lo = b<<LOG_BLOCK, hi = Math.min(len,lo+BLOCK);
+      long prev = UnsafeUtils.get8(ds,lo<<3);
+      long pos = put(out,off,0,prev,64);
+      int plz = -1, plen = 0;   // Previous window: leading zeros & meaningful length
+      for( int i = lo+1; i < hi; i++ ) {
+        long v = UnsafeUtils.get8(ds,i<<3), x = v^prev;
+        prev = v;
+        if( x == 0 ) { pos = put(out,off,pos,0,1); continue; }
+        int lz = Long.numberOfLeadingZeros(x), tz = Long.numberOfTrailingZeros(x);
+        if( plz >= 0 && lz >= plz && tz >= 64-plz-plen ) { // Fits the previous window
+          pos = put(out,off,pos,1,2);
+          pos = put(out,off,pos,x>>>(64-plz-plen),plen);
+        } else {
+          int mlen = 64-lz-tz;
+          pos = put(out,off,pos,3,2);
+          pos = put(out,off,pos,lz,6);
+          pos = put(out,off,pos,mlen-1,6);
+          pos = put(out,off,pos,x>>>tz,mlen);
+          plz = lz;  plen = mlen;
+        }
+      }
+      off += (int)((pos+7)>>3);
+    }
+    return off+8;
+  }
+
+  // Write the n low bits of val at bit position pos of the stream at off
+  private static long put(byte[] out, int off, long pos, long val, int n) {
+    if( n > 32 ) {
+      pos = put(out,off,pos,val,32);
+      return put(out,off,pos,val>>>32,n-32);
+    }
+    if( out != null ) {
+      int a = off + (int)(pos>>3);
+      UnsafeUtils.set8(out,a,UnsafeUtils.get8(out,a) | ((val & ((1L<<n)-1)) << (pos&7)));
+    }
+    return pos+n;
+  }
+
+  // Read n <= 32 bits at bit position pos of the stream at off
+  private long get(int off, long pos, int n) {
+    return (UnsafeUtils.get8(_mem,off+(int)(pos>>3)) >>> (pos&7)) & ((1L<<n)-1);
+  }
+
+  // Decode all rows of block b into ds
+  private double[] decode(int b, double[] ds) {
+    final int off = UnsafeUtils.get4(_mem,_OFF+(b<<2));
+    final int n = Math.min(BLOCK,_len-(b<<LOG_BLOCK));
+    long v = get(off,0,32) | get(off,32,32)<<32;
+    long pos = 64;
+    ds[0] = Double.longBitsToDouble(v);
+    int lz = 0, mlen = 0;
+    for( int j = 1; j < n; j++ ) {
+      if( get(off,pos++,1) != 0 ) {
+        if( get(off,pos++,1) != 0 ) { // New window
+          lz   = (int)get(off,pos,6);
+          mlen = (int)get(off,pos+6,6)+1;
+          pos += 12;
+        }
+        long x = mlen > 32 ? get(off,pos,32) | get(off,pos+32,mlen-32)<<32 : get(off,pos,mlen);
+        pos += mlen;
+        v ^= x << (64-lz-mlen);
+      }
+      ds[j] = Double.longBitsToDouble(v);
+    }
+    return ds;
+  }
+
+  private double[] block(int b) {
+    Block blk = _blk;
+    if( blk == null || blk._owner != Thread.currentThread() ) _blk = blk = new Block();
+    if( blk._b != b ) { decode(b,blk._ds); blk._b = b; }
+    return blk._ds;
+  }
+
+  @Override protected final long at8_impl( int i ) {
+    double res = atd_impl(i);
+    if( Double.isNaN(res) ) throw new IllegalArgumentException("at8_abs but value is missing");
+    return (long)res;
+  }
+  @Override protected final double atd_impl( int i ) { return block(i>>LOG_BLOCK)[i&(BLOCK-1)]; }
+  @Override protected final boolean isNA_impl( int i ) { return Double.isNaN(atd_impl(i)); }
+
+  // Only writes which do not change the value stick; anything else inflates
+  @Override boolean set_impl(int idx, long l) { return atd_impl(idx) == l; }
+  @Override boolean set_impl(int idx, double d) {
+    double res = atd_impl(idx);
+    return res == d || (Double.isNaN(res) && Double.isNaN(d));
+  }
+  @Override boolean set_impl(int i, float f ) { return set_impl(i,(double)f); }
+  @Override boolean setNA_impl(int idx) { return isNA_impl(idx); }
+
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    for( int i = from; i < to; ) {
+      double[] ds = block(i>>LOG_BLOCK);
+      int e = Math.min(to,((i>>LOG_BLOCK)+1)<<LOG_BLOCK);
+      for( ; i < e; i++ ) {
+        double d = ds[i&(BLOCK-1)];
+        vals[i-from] = Double.isNaN(d) ? NA : d;
+      }
+    }
+    return vals;
+  }
+
+  @Override public double [] getDoubles(double [] vals, int [] ids){
+    int k = 0;
+    for( int i : ids ) vals[k++] = atd_impl(i);
+    return vals;
+  }
+
+  @Override public <T extends ChunkVisitor> T processRows(T v, int from, int to) {
+    for( int i = from; i < to; ) {
+      double[] ds = block(i>>LOG_BLOCK);
+      int e = Math.min(to,((i>>LOG_BLOCK)+1)<<LOG_BLOCK);
+      for( ; i < e; i++ ) {
+        double d = ds[i&(BLOCK-1)];
+        if( Double.isNaN(d) ) v.addNAs(1);
+        else v.addValue(d);
+      }
+    }
+    return v;
+  }
+
+  @Override public <T extends ChunkVisitor> T processRows(T v, int[] ids) {
+    for( int i : ids ) {
+      double d = atd_impl(i);
+      if( Double.isNaN(d) ) v.addNAs(1);
+      else v.addValue(d);
+    }
+    return v;
+  }
+
+  @Override protected final void initFromBytes () {
+    _start = -1;  _cidx = -1;
+    set_len(UnsafeUtils.get4(_mem,0));
+    _blk = null;
+  }
+}
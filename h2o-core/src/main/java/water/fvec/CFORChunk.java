@@ -0,0 +1,147 @@
+package water.fvec;
+
+import water.util.UnsafeUtils;
+
+/**
+ * The delta / frame-of-reference compression function, for integer columns
+ * that change slowly or steadily from row to row: timestamps, counters,
+ * monotonic ids.
+ *
+ * Rows are grouped in blocks of 128.  Each block fits a line through its
+ * first and last value, and stores each row as its (non-negative) distance
+ * from that line, bit-packed at the width of the largest distance.  Evenly
+ * spaced timestamps pack to zero bits per row; jittery ones to a few bits.
+ * When a block holds NAs the all-ones code is reserved for them.
+ *
+ * Layout: 4 bytes _len; then per block a 20 byte header: 8 bytes base, 4
+ * bytes slope, 4 bytes offset of the packed data, 1 byte bit width, 1 byte NA
+ * flag, 2 pad; then the packed data of all blocks, then 8 pad bytes so that
+ * any code can be read with a single 8-byte load.
+ *
+ * Any row decodes in O(1); {@link #getDoubles} and {@link #processRows}
+ * decode a block at a time.
+ */
+public class CFORChunk extends Chunk {
+  static final int LOG_BLOCK = 7;
+  static final int BLOCK = 1<<LOG_BLOCK;
+  static final int _OFF = 4;
+  static final int HDR = 20;
+  static final int MAX_BITS = 56; // Widest code readable with one 8-byte load
+
+  CFORChunk(byte[] bs) { _mem = bs; initFromBytes(); }
+
+  static int nblocks(int len) { return (len+BLOCK-1)>>LOG_BLOCK; }
+  /** Offset of the packed data of the first block */
+  static int dataOffset(int nblocks) { return _OFF + nblocks*HDR; }
+
+  static void writeHeader(byte[] bs, int b, long base, int slope, int off, int bits, boolean na) {
+    int h = _OFF + b*HDR;
+    UnsafeUtils.set8(bs,h,base);
+    UnsafeUtils.set4(bs,h+8,slope);
+    UnsafeUtils.set4(bs,h+12,off);
+    bs[h+16] = (byte)bits;
+    bs[h+17] = (byte)(na ? 1 : 0);
+  }
+  /** OR a code into place; the buffer must be zeroed, and codes written in order */
+  static void writeCode(byte[] bs, int off, int bits, int j, long code) {
+    if( bits == 0 ) return;
+    long p = (long)j*bits;
+    int a = off + (int)(p>>3);
+    UnsafeUtils.set8(bs,a,UnsafeUtils.get8(bs,a) | (code << (p&7)));
+  }
+
+  private static long mask(int bits) { return (1L<<bits)-1; }
+  private long code(int off, int bits, int j) {
+    if( bits == 0 ) return 0;
+    long p = (long)j*bits;
+    return (UnsafeUtils.get8(_mem,off+(int)(p>>3)) >>> (p&7)) & mask(bits);
+  }
+
+  // Is this code the NA of the block with header at h?
+  private boolean isNA(int h, long code) { return _mem[h+17] != 0 && code == mask(_mem[h+16]); }
+
+  @Override protected final long at8_impl( int i ) {
+    int h = _OFF + (i>>LOG_BLOCK)*HDR;
+    int j = i&(BLOCK-1);
+    long c = code(UnsafeUtils.get4(_mem,h+12),_mem[h+16],j);
+    if( isNA(h,c) ) throw new IllegalArgumentException("at8_abs but value is missing");
+    return UnsafeUtils.get8(_mem,h) + (long)UnsafeUtils.get4(_mem,h+8)*j + c;
+  }
+  @Override protected final double atd_impl( int i ) {
+    int h = _OFF + (i>>LOG_BLOCK)*HDR;
+    int j = i&(BLOCK-1);
+    long c = code(UnsafeUtils.get4(_mem,h+12),_mem[h+16],j);
+    return isNA(h,c) ? Double.NaN : UnsafeUtils.get8(_mem,h) + (long)UnsafeUtils.get4(_mem,h+8)*j + c;
+  }
+  @Override protected final boolean isNA_impl( int i ) {
+    int h = _OFF + (i>>LOG_BLOCK)*HDR;
+    return _mem[h+17] != 0 && isNA(h,code(UnsafeUtils.get4(_mem,h+12),_mem[h+16],i&(BLOCK-1)));
+  }
+
+  // Only writes which do not change the value stick; anything else inflates
+  @Override boolean set_impl(int idx, long l) { return !isNA_impl(idx) && at8_impl(idx) == l; }
+  @Override boolean set_impl(int idx, double d) {
+    if( Double.isNaN(d) ) return setNA_impl(idx);
+    long l = (long)d;
+    return l == d && set_impl(idx, l);
+  }
+  @Override boolean set_impl(int i, float f ) { return set_impl(i,(double)f); }
+  @Override boolean setNA_impl(int idx) { return isNA_impl(idx); }
+
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    for( int i = from; i < to; ) {
+      int h = _OFF + (i>>LOG_BLOCK)*HDR;
+      long base = UnsafeUtils.get8(_mem,h);
+      long slope = UnsafeUtils.get4(_mem,h+8);
+      int off = UnsafeUtils.get4(_mem,h+12);
+      int bits = _mem[h+16];
+      long na = _mem[h+17] != 0 ? mask(bits) : -1;
+      int e = Math.min(to,((i>>LOG_BLOCK)+1)<<LOG_BLOCK);
+      for( ; i < e; i++ ) {
+        int j = i&(BLOCK-1);
+        long c = code(off,bits,j);
+        vals[i-from] = c == na ? NA : base + slope*j + c;
+      }
+    }
+    return vals;
+  }
+
+  @Override public double [] getDoubles(double [] vals, int [] ids){
+    int k = 0;
+    for( int i : ids ) vals[k++] = atd_impl(i);
+    return vals;
+  }
+
+  @Override public <T extends ChunkVisitor> T processRows(T v, int from, int to) {
+    for( int i = from; i < to; ) {
+      int h = _OFF + (i>>LOG_BLOCK)*HDR;
+      long base = UnsafeUtils.get8(_mem,h);
+      long slope = UnsafeUtils.get4(_mem,h+8);
+      int off = UnsafeUtils.get4(_mem,h+12);
+      int bits = _mem[h+16];
+      long na = _mem[h+17] != 0 ? mask(bits) : -1;
+      int e = Math.min(to,((i>>LOG_BLOCK)+1)<<LOG_BLOCK);
+      for( ; i < e; i++ ) {
+        int j = i&(BLOCK-1);
+        long c = code(off,bits,j);
+        if( c == na ) v.addNAs(1);
+        else v.addValue(base + slope*j + c);
+      }
+    }
+    return v;
+  }
+
+  @Override public <T extends ChunkVisitor> T processRows(T v, int[] ids) {
+    for( int i : ids ) {
+      if( isNA_impl(i) ) v.addNAs(1);
+      else v.addValue(at8_impl(i));
+    }
+    return v;
+  }
+
+  @Override protected final void initFromBytes () {
+    _start = -1;  _cidx = -1;
+    set_len(UnsafeUtils.get4(_mem,0));
+  }
+  @Override public boolean hasFloat() { return false; }
+}
@@ -0,0 +1,156 @@
+package water.fvec;
+
+import water.util.UnsafeUtils;
+
+/**
+ * The N-bit compression function, for integer and categorical columns whose
+ * range does not fill a whole number of bytes: a 40-level factor packs at 6
+ * bits per row instead of the 8 of a {@link C1Chunk}, a 600-level factor at
+ * 10 instead of the 16 of a {@link C2Chunk}.
+ *
+ * Each row is stored as its distance from the chunk minimum, bit-packed at
+ * 1 to 31 bits; the all-ones code is NA.  Bulk reads unpack codes from one
+ * 8-byte load at a time, which yields 57/bits codes per load.
+ *
+ * Layout: 4 bytes _len, 1 byte bit width, 8 bytes bias; then the codes,
+ * least-significant bit first; then 8 pad bytes so that any code can be read
+ * with a single 8-byte load.
+ */
+public class CNBChunk extends Chunk {
+  static final int _OFF = 13;
+  static final int MAX_BITS = 31;
+  private static final int BULK = 256; // Codes unpacked per strip in the bulk reads
+  private transient int _bits;
+  private transient long _bias;
+  private transient long _na;
+
+  CNBChunk(byte[] bs) { _mem = bs; initFromBytes(); }
+
+  /** Bits per row for a range of values, plus the NA code */
+  static int bitsFor(long range) { return 64-Long.numberOfLeadingZeros(range+1); }
+  static int byteSize(int len, int bits) { return _OFF + (int)(((long)len*bits+7)>>3) + 8; }
+
+  static void writeHeader(byte[] bs, int len, int bits, long bias) {
+    UnsafeUtils.set4(bs,0,len);
+    bs[4] = (byte)bits;
+    UnsafeUtils.set8(bs,5,bias);
+  }
+  /** OR a code into place; the buffer must be zeroed */
+  static void writeCode(byte[] bs, int bits, int i, long code) {
+    long p = (long)i*bits;
+    int a = _OFF + (int)(p>>3);
+    UnsafeUtils.set8(bs,a,UnsafeUtils.get8(bs,a) | (code << (p&7)));
+  }
+
+  private long code(int i) {
+    long p = (long)i*_bits;
+    return (UnsafeUtils.get8(_mem,_OFF+(int)(p>>3)) >>> (p&7)) & _na;
+  }
+  private void setCode(int i, long code) {
+    long p = (long)i*_bits;
+    int a = _OFF + (int)(p>>3);
+    int sh = (int)(p&7);
+    UnsafeUtils.set8(_mem,a,(UnsafeUtils.get8(_mem,a) & ~(_na << sh)) | (code << sh));
+  }
+
+  // Unpack the codes of rows [from,to) into codes[off...]
+  private void unpack(int from, int to, int[] codes, int off) {
+    final int bits = _bits;
+    final long mask = _na;
+    long p = (long)from*bits;
+    int a = _OFF + (int)(p>>3);
+    int used = (int)(p&7);      // Bits consumed from the word at a
+    long w = UnsafeUtils.get8(_mem,a) >>> used;
+    int avail = 64-used;
+    for( int i = from; i < to; i++ ) {
+      if( avail < bits ) {      // Refill from the byte holding the next code
+        a += used>>3;  used &= 7;
+        w = UnsafeUtils.get8(_mem,a) >>> used;
+        avail = 64-used;
+      }
+      codes[off++] = (int)(w & mask);
+      w >>>= bits;  avail -= bits;  used += bits;
+    }
+  }
+
+  @Override protected final long at8_impl( int i ) {
+    long c = code(i);
+    if( c == _na ) throw new IllegalArgumentException("at8_abs but value is missing");
+    return _bias + c;
+  }
+  @Override protected final double atd_impl( int i ) {
+    long c = code(i);
+    return c == _na ? Double.NaN : _bias + c;
+  }
+  @Override protected final boolean isNA_impl( int i ) { return code(i) == _na; }
+  @Override boolean set_impl(int idx, long l) {
+    long c = l - _bias;
+    if( !(0 <= c && c < _na) ) return false;
+    setCode(idx,c);
+    return true;
+  }
+  @Override boolean set_impl(int idx, double d) {
+    if( Double.isNaN(d) ) return setNA_impl(idx);
+    long l = (long)d;
+    return l == d && set_impl(idx, l);
+  }
+  @Override boolean set_impl(int i, float f ) { return set_impl(i,(double)f); }
+  @Override boolean setNA_impl(int idx) { setCode(idx,_na); return true; }
+
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    int[] codes = new int[Math.min(BULK,to-from)];
+    for( int i = from; i < to; i += codes.length ) {
+      int n = Math.min(codes.length,to-i);
+      unpack(i,i+n,codes,0);
+      for( int j = 0; j < n; j++ )
+        vals[i-from+j] = codes[j] == _na ? NA : _bias + codes[j];
+    }
+    return vals;
+  }
+
+  @Override public double [] getDoubles(double [] vals, int [] ids){
+    int k = 0;
+    for( int i : ids ) vals[k++] = atd_impl(i);
+    return vals;
+  }
+
+  @Override
+  public int [] getIntegers(int [] vals, int from, int to, int NA){
+    unpack(from,to,vals,0);
+    for( int i = 0; i < to-from; i++ )
+      vals[i] = vals[i] == _na ? NA : (int)(_bias + vals[i]);
+    return vals;
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int from, int to) {
+    int[] codes = new int[Math.min(BULK,to-from)];
+    for( int i = from; i < to; i += codes.length ) {
+      int n = Math.min(codes.length,to-i);
+      unpack(i,i+n,codes,0);
+      for( int j = 0; j < n; j++ )
+        if( codes[j] == _na ) v.addNAs(1);
+        else v.addValue(_bias + codes[j]);
+    }
+    return v;
+  }
+
+  @Override
+  public <T extends ChunkVisitor> T processRows(T v, int[] ids) {
+    for( int i : ids ) {
+      long c = code(i);
+      if( c == _na ) v.addNAs(1);
+      else v.addValue(_bias + c);
+    }
+    return v;
+  }
+
+  @Override protected final void initFromBytes () {
+    _start = -1;  _cidx = -1;
+    set_len(UnsafeUtils.get4(_mem,0));
+    _bits = _mem[4];
+    _bias = UnsafeUtils.get8(_mem,5);
+    _na = (1L<<_bits)-1;
+  }
+  @Override public boolean hasFloat() { return false; }
+}
@@ -0,0 +1,174 @@
+package water.fvec;
+
+import water.util.UnsafeUtils;
+
+import java.util.Arrays;
+
+/**
+ * The run-length compression function: integers (and categoricals) stored as
+ * one entry per run of equal values, NA runs included.  Picked for sorted or
+ * clustered columns (sort keys, time-series ids) where it is much smaller
+ * than any per-row layout.
+ *
+ * Layout: 4 bytes _len, 4 bytes number of runs, 1 byte log2 of the value
+ * size, 3 bytes pad, 8 bytes bias; then the start row of each run as ints,
+ * then the biased value of each run in 1, 2, 4 or 8 bytes.  The smallest
+ * value of each size is the NA.
+ *
+ * Rows are found by binary search over the run starts; the last run found is
+ * remembered, so in-order access costs O(1) per row.
+ */
+public class CRLEChunk extends Chunk {
+  static final int _OFF = 20;
+  static final long[] NAS = {Byte.MIN_VALUE, Short.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE};
+
+  private int _nruns;
+  private int _log;             // log2 of the value size
+  private int _voff;            // Offset of the run values
+  private long _bias;
+  private transient int _lastRun; // Cursor for in-order access; racy but always validated
+
+  CRLEChunk(byte[] bs) { _mem = bs; initFromBytes(); }
+
+  /** Bytes needed to store the given number of runs with values of the given size */
+  static int computeByteSize(int nruns, int log) { return _OFF + (nruns<<2) + (nruns<<log); }
+
+  static void writeHeader(byte[] bs, int len, int nruns, int log, long bias) {
+    UnsafeUtils.set4(bs,0,len);
+    UnsafeUtils.set4(bs,4,nruns);
+    bs[8] = (byte)log;
+    UnsafeUtils.set8(bs,12,bias);
+  }
+  static void writeRun(byte[] bs, int nruns, int log, int r, int start, long val) {
+    UnsafeUtils.set4(bs,_OFF+(r<<2),start);
+    int off = _OFF+(nruns<<2)+(r<<log);
+    switch( log ) {
+    case 0: bs[off] = (byte)val; break;
+    case 1: UnsafeUtils.set2(bs,off,(short)val); break;
+    case 2: UnsafeUtils.set4(bs,off,(int)val); break;
+    case 3: UnsafeUtils.set8(bs,off,val); break;
+    default: throw water.H2O.fail();
+    }
+  }
+
+  public int numRuns() { return _nruns; }
+
+  private int start(int r) { return UnsafeUtils.get4(_mem,_OFF+(r<<2)); }
+  private int end(int r) { return r+1 < _nruns ? start(r+1) : _len; }
+
+  // Raw (biased) value of a run; NAS[_log] for NA
+  private long raw(int r) {
+    int off = _voff+(r<<_log);
+    switch( _log ) {
+    case 0: return _mem[off];
+    case 1: return UnsafeUtils.get2(_mem,off);
+    case 2: return UnsafeUtils.get4(_mem,off);
+    default: return UnsafeUtils.get8(_mem,off);
+    }
+  }
+
+  // Index of the run holding row i
+  private int run(int i) {
+    int r = _lastRun;
+    if( r < _nruns && start(r) <= i ) {
+      if( i < end(r) ) return r;         // Same run as last time
+      if( ++r < _nruns && i < end(r) ) { // Next run
+        _lastRun = r;
+        return r;
+      }
+    }
+    int lo = 0, hi = _nruns-1;  // Largest run with start <= i; start(0)==0
+    while( lo < hi ) {
+      int mid = (lo+hi+1)>>>1;
+      if( start(mid) <= i ) lo = mid;
+      else hi = mid-1;
+    }
+    return _lastRun = lo;
+  }
+
+  @Override protected final long at8_impl( int i ) {
+    long res = raw(run(i));
+    if( res == NAS[_log] ) throw new IllegalArgumentException("at8_abs but value is missing");
+    return res+_bias;
+  }
+  @Override protected final double atd_impl( int i ) {
+    long res = raw(run(i));
+    return res == NAS[_log] ? Double.NaN : res+_bias;
+  }
+  @Override protected final boolean isNA_impl( int i ) { return raw(run(i)) == NAS[_log]; }
+
+  // Only writes which do not change the value stick; anything else inflates
+  @Override boolean set_impl(int idx, long l) {
+    long res = raw(run(idx));
+    return res != NAS[_log] && res+_bias == l;
+  }
+  @Override boolean set_impl(int idx, double d) {
+    if( Double.isNaN(d) ) return setNA_impl(idx);
+    long l = (long)d;
+    return l == d && set_impl(idx, l);
+  }
+  @Override boolean set_impl(int i, float f ) { return set_impl(i,(double)f); }
+  @Override boolean setNA_impl(int idx) { return isNA_impl(idx); }
+
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    for( int i = from; i < to; ) {
+      int r = run(i);
+      int e = Math.min(to,end(r));
+      long x = raw(r);
+      Arrays.fill(vals,i-from,e-from,x == NAS[_log] ? NA : x+_bias);
+      i = e;
+    }
+    return vals;
+  }
+
+  @Override public double [] getDoubles(double [] vals, int [] ids){
+    int k = 0;
+    for( int i : ids ) vals[k++] = atd_impl(i);
+    return vals;
+  }
+
+  @Override public int [] getIntegers(int [] vals, int from, int to, int NA){
+    for( int i = from; i < to; ) {
+      int r = run(i);
+      int e = Math.min(to,end(r));
+      long x = raw(r);
+      Arrays.fill(vals,i-from,e-from,x == NAS[_log] ? NA : (int)(x+_bias));
+      i = e;
+    }
+    return vals;
+  }
+
+  @Override public <T extends ChunkVisitor> T processRows(T v, int from, int to) {
+    for( int i = from; i < to; ) {
+      int r = run(i);
+      int e = Math.min(to,end(r));
+      long x = raw(r);
+      if( x == NAS[_log] ) v.addNAs(e-i);
+      else if( x+_bias == 0 ) v.addZeros(e-i);
+      else for( int j = i; j < e; j++ ) v.addValue(x+_bias);
+      i = e;
+    }
+    return v;
+  }
+
+  @Override public <T extends ChunkVisitor> T processRows(T v, int[] ids) {
+    for( int i : ids ) {
+      long x = raw(run(i));
+      if( x == NAS[_log] ) v.addNAs(1);
+      else v.addValue(x+_bias);
+    }
+    return v;
+  }
+
+  @Override protected final void initFromBytes () {
+    _start = -1;  _cidx = -1;
+    set_len(UnsafeUtils.get4(_mem,0));
+    _nruns = UnsafeUtils.get4(_mem,4);
+    _log = _mem[8];
+    _bias = UnsafeUtils.get8(_mem,12);
+    _voff = _OFF+(_nruns<<2);
+    _lastRun = 0;
+    assert _mem.length == computeByteSize(_nruns,_log);
+  }
+  @Override public boolean hasFloat() { return false; }
+}
@@ -10,12 +10,21 @@ import java.util.Arrays;
 
 /**
  * The empty-compression function, where data is in 'string's.
+ *
+ * Rows hold offsets into the string bytes.  When a chunk has few distinct
+ * strings (at most -Dsys.ai.h2o.chunk.str.dedup of its non-NA rows, default
+ * 0.5), {@link NewChunk} stores each distinct string once and points all the
+ * rows holding it at the one copy, making the string bytes a chunk-local
+ * dictionary; {@link #isDictionary} tells, and equal offsets then mean equal
+ * strings.  Strings are returned as {@link BufferedString} views either way.
  */
 public class CStrChunk extends Chunk {
+  static final double DEDUP_RATIO = Double.parseDouble(System.getProperty(H2O.OptArgs.SYSTEM_PROP_PREFIX + "chunk.str.dedup", "0.5"));
   static final int NA = -1;
   static protected final int _OFF=4+1;
   private int _valstart;
   public boolean _isAllASCII = false;
+  private boolean _isDict;
 
   public CStrChunk() {}
 
@@ -44,6 +53,14 @@ public class CStrChunk extends Chunk {
     init(sslen,ss,sparseLen,idxLen,id,is);
   }
 
+  /**
+   * As above, for string bytes holding each distinct string once.
+   */
+  CStrChunk(int sslen, byte[] ss, int sparseLen, int idxLen, int[] id, int[] is, boolean isDict) {
+    _isDict = isDict;
+    init(sslen,ss,sparseLen,idxLen,id,is);
+  }
+
   private void init (int sslen, byte[] ss, int sparseLen, int idxLen, int[] id, int[] is) {
     _start = -1;
     _valstart = idx(idxLen);
@@ -63,7 +80,7 @@ public class CStrChunk extends Chunk {
         break;
       }
     }
-    UnsafeUtils.set1(_mem, 4, (byte) (_isAllASCII ? 1 : 0)); // isAllASCII flag
+    UnsafeUtils.set1(_mem, 4, (byte) ((_isAllASCII ? 1 : 0) | (_isDict ? 2 : 0))); // isAllASCII & isDictionary flags
   }
 
   private int idx(int i) { return _OFF+(i<<2); }
@@ -79,7 +96,12 @@ public class CStrChunk extends Chunk {
   }
 
   public int intAt(int i) { return UnsafeUtils.get4(_mem, idx(i)); }
+  /** True if each distinct string is stored once, so that rows holding equal
+   *  strings have equal {@link #intAt} offsets */
+  public boolean isDictionary() { return _isDict; }
   public byte byteAt(int i) { return _mem[_valstart+i]; }
+  /** Size of the string bytes; every {@link #intAt} offset is below it */
+  public int stringBytes() { return _mem.length - _valstart; }
   public int lengthAtOffset(int off) {
     int len = 0;
     while (byteAt(off + len) != 0) len++;
@@ -100,7 +122,8 @@ public class CStrChunk extends Chunk {
     _start = -1;  _cidx = -1;
     _valstart = UnsafeUtils.get4(_mem, 0);
     byte b = UnsafeUtils.get1(_mem,4);
-    _isAllASCII = b != 0;
+    _isAllASCII = (b & 1) != 0;
+    _isDict = (b & 2) != 0;
     set_len((_valstart-_OFF)>>2);
   }
 
@@ -117,7 +140,19 @@ public class CStrChunk extends Chunk {
     return nc;
   }
 
-
+  // Copy the row offsets and string bytes into nc as they are, so that the
+  // in-place ascii* methods below touch each dictionary string only once
+  private NewChunk copyInto(NewChunk nc) {
+    int[] is = nc.alloc_str_indices(_len);
+    for( int i = 0; i < _len; ++i ) is[i] = intAt(i);
+    int sslen = _mem.length - _valstart;
+    nc._ss = MemoryManager.malloc1(sslen);
+    UnsafeUtils.copyMemory(_mem,_valstart,nc._ss,0,sslen);
+    nc._sslen = sslen;
+    nc.set_sparseLen(nc.set_len(_len));
+    nc._isAllASCII = _isAllASCII;
+    return nc;
+  }
 
   /**
    * Optimized toLower() method to operate across the entire CStrChunk buffer in one pass.
@@ -130,7 +165,7 @@ public class CStrChunk extends Chunk {
    */
   public NewChunk asciiToLower(NewChunk nc) {
     // copy existing data
-    nc = this.extractRows(nc, 0,_len);
+    nc = copyInto(nc);
     //update offsets and byte array
     for(int i= 0; i < nc._sslen; i++) {
       if (nc._ss[i] > 0x40 && nc._ss[i] < 0x5B) // check for capital letter
@@ -151,7 +186,7 @@ public class CStrChunk extends Chunk {
    */
   public NewChunk asciiToUpper(NewChunk nc) {
     // copy existing data
-    nc = this.extractRows(nc, 0,_len);
+    nc = copyInto(nc);
     //update offsets and byte array
     for(int i= 0; i < nc._sslen; i++) {
       if (nc._ss[i] > 0x60 && nc._ss[i] < 0x7B) // check for capital letter
@@ -174,7 +209,7 @@ public class CStrChunk extends Chunk {
    */
   public NewChunk asciiTrim(NewChunk nc) {
     // copy existing data
-    nc = this.extractRows(nc, 0,_len);
+    nc = copyInto(nc);
     //update offsets and byte array
     for(int i=0; i < _len; i++) {
       int j = 0;
@@ -206,7 +241,7 @@ public class CStrChunk extends Chunk {
    */
   public NewChunk asciiSubstring(NewChunk nc, int startIndex, int endIndex) {
     // copy existing data
-    nc = this.extractRows(nc, 0,_len);
+    nc = copyInto(nc);
     //update offsets and byte array
     for (int i = 0; i < _len; i++) {
       int off = UnsafeUtils.get4(_mem, idx(i));
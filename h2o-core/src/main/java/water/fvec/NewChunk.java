@@ -1027,6 +1027,74 @@ public class NewChunk extends Chunk {
     return res;
   }
 
+  // Store each distinct string once, pointing all the rows holding it at the
+  // one copy - if there are few enough distinct strings for it to pay.
+  private boolean dedupStrings() {
+    final int maxDistinct = (int)(CStrChunk.DEDUP_RATIO*_sparseLen);
+    if( maxDistinct == 0 || !mayDedup(maxDistinct) ) return false;
+    // Open addressing, at most half full: offsets into ss of the distinct strings, plus 1; 0 is empty
+    int[] table = new int[Integer.highestOneBit(maxDistinct)<<2];
+    final int mask = table.length-1;
+    int[] is = MemoryManager.malloc4(_sparseLen);
+    byte[] ss = MemoryManager.malloc1(_sslen);
+    int sslen = 0, nstrs = 0, ndistinct = 0;
+    for( int i = 0; i < _sparseLen; i++ ) {
+      int off = _is[i];
+      if( off == CStrChunk.NA ) { is[i] = CStrChunk.NA; continue; }
+      nstrs++;
+      int len = 0, h = 0;
+      for( byte b; (b = _ss[off+len]) != 0; len++ ) h = 31*h + b;
+      h = (h ^ (h>>>16)) & mask;
+      int o;
+      while( (o = table[h]-1) >= 0 && !sameString(ss, o, off, len) ) h = (h+1) & mask;
+      if( o < 0 ) {
+        if( ndistinct++ >= maxDistinct ) return false; // Too many distinct strings
+        table[h] = (o = sslen)+1;
+        System.arraycopy(_ss, off, ss, sslen, len + 1);
+        sslen += len + 1;
+      }
+      is[i] = o;
+    }
+    if( ndistinct > CStrChunk.DEDUP_RATIO*nstrs ) return false;
+    _is = is;  _ss = ss;  _sslen = sslen;
+    return true;
+  }
+
+  // Rows sampled before paying for the full dedup pass
+  private static final int DEDUP_SAMPLE = 256;
+
+  // Cheap look at an evenly spaced sample of the strings: false if it holds
+  // well under half the repeats that maxDistinct equally common strings
+  // would give, i.e. the chunk has clearly too many distinct strings.
+  // Skewed columns only repeat more, so this errs toward the full pass.
+  private boolean mayDedup( int maxDistinct ) {
+    if( _sparseLen < DEDUP_SAMPLE<<2 ) return true; // Full pass is cheap enough
+    int[] table = new int[DEDUP_SAMPLE<<1]; // Offsets into _ss of the sampled strings, plus 1
+    final int mask = table.length-1, stride = _sparseLen/DEDUP_SAMPLE;
+    int nstrs = 0, repeats = 0;
+    for( int i = 0; i < _sparseLen && nstrs < DEDUP_SAMPLE; i += stride ) {
+      int off = _is[i];
+      if( off == CStrChunk.NA ) continue;
+      nstrs++;
+      int len = 0, h = 0;
+      for( byte b; (b = _ss[off+len]) != 0; len++ ) h = 31*h + b;
+      h = (h ^ (h>>>16)) & mask;
+      int o;
+      while( (o = table[h]-1) >= 0 && !sameString(_ss, o, off, len) ) h = (h+1) & mask;
+      if( o >= 0 ) repeats++;
+      else table[h] = off+1;
+    }
+    double expected = nstrs - maxDistinct*(1-Math.exp(-(double)nstrs/maxDistinct));
+    return 2*repeats >= expected;
+  }
+
+  // True if the string at o in ss is the len bytes at off in _ss
+  private boolean sameString( byte[] ss, int o, int off, int len ) {
+    for( int j = 0; j < len; j++ )
+      if( ss[o+j] != _ss[off+j] ) return false;
+    return ss[o+len] == 0;
+  }
+
   private static long leRange(long lemin, long lemax){
     if(lemin < 0 && lemax >= (Long.MAX_VALUE + lemin))
       return Long.MAX_VALUE; // if overflow return 64 as the max possible value
@@ -1040,7 +1108,7 @@ public class NewChunk extends Chunk {
     if( mode==Vec.T_BAD ) // ALL NAs, nothing to do
       return new C0DChunk(Double.NaN, _len);
     if( mode==Vec.T_STR )
-      return new CStrChunk(_sslen, _ss, _sparseLen, _len, _id, _is);
+      return new CStrChunk(_sslen, _ss, _sparseLen, _len, _id, _is, dedupStrings());
     boolean rerun=false;
     if(mode == Vec.T_CAT) {
       for(int i = 0; i< _sparseLen; i++ )
@@ -1191,9 +1259,31 @@ public class NewChunk extends Chunk {
       if( (lemin/pow10lo) != llo ) overflow = true;
     }
     final long leRange = leRange(lemin,lemax);
+    final boolean fpoint = xmin < 0 || min < Long.MIN_VALUE || max > Long.MAX_VALUE;
+    final boolean isBool = max == 1 && min == 0 && xmin == 0 && !overflow;
+    // Bytes for plain integers at a whole number of bytes per row, and
+    // bit-packed at the exact width
+    final long wordBytes = leRange < 255 ? _len : leRange < 65535 ? 2L*_len
+      : Integer.MIN_VALUE < min && max <= Integer.MAX_VALUE ? 4L*_len : 8L*_len;
+    final int nbits = overflow || xmin != 0 ? 64 : CNBChunk.bitsFor(leRange);
+    final long packedBytes = nbits <= CNBChunk.MAX_BITS ? CNBChunk.byteSize(_len,nbits) : Long.MAX_VALUE;
+
+    // Sorted or clustered integers?  Run-length encode if much smaller.
+    // Else steadily changing wide integers (timestamps, counters)?  Try
+    // delta / frame-of-reference bit-packing.
+    if( !(sparse || na_sparse || overflow || fpoint) ) {
+      long perRow = isBool ? ((_catCnt+_naCnt > 0 ? 2L : 1L)*_len+7)>>3
+        : Math.min(wordBytes,packedBytes);
+      Chunk rle = chunkRLE(perRow);
+      if( rle != null ) return rle;
+      if( perRow >= 2L*_len ) {
+        Chunk dfor = chunkFOR(perRow/2);
+        if( dfor != null ) return dfor;
+      }
+    }
 
     // Boolean column?
-    if (max == 1 && min == 0 && xmin == 0 && !overflow) {
+    if (isBool) {
       if(sparse || na_sparse) { // Very sparse?
         return  !na_sparse && _naCnt==0
           ? new CXIChunk(bufS(_len,_len < 65535?2:4,0,false))// No NAs, can store as sparse bitvector
@@ -1205,8 +1295,6 @@ public class NewChunk extends Chunk {
       return bufB(bpv);
     }
 
-    final boolean fpoint = xmin < 0 || min < Long.MIN_VALUE || max > Long.MAX_VALUE;
-
     if( sparse || na_sparse ) {
       if(fpoint) {
         if(_ds == null){
@@ -1252,6 +1340,9 @@ public class NewChunk extends Chunk {
       return chunkD();
     } // else an integer column
 
+    // Range not a whole number of bytes?  Bit-pack at the exact width.
+    if( packedBytes < wordBytes )
+      return chunkNB(lemin,nbits);
     // Compress column into a byte
     if(xmin == 0 &&  0<=lemin && lemax <= 255 && ((_naCnt + _catCnt)==0) )
       return new C1NChunk( bufX(0,0,C1NChunk._OFF,0));
@@ -1350,6 +1441,116 @@ public class NewChunk extends Chunk {
     return bs;
   }
 
+  // Integer value of a non-sparse, non-NA, non-fractional element
+  private long longVal(int i) {
+    long l = _ms.get(i);
+    int x = _xs.get(i);         // Negative exponents are only special flags here
+    return x > 0 ? l*PrettyPrint.pow10i(x) : l;
+  }
+
+  // Compute a bit-packed buffer, storing rows as their distance from bias
+  private Chunk chunkNB(long bias, int nbits) {
+    byte[] bs = MemoryManager.malloc1(CNBChunk.byteSize(_len,nbits));
+    CNBChunk.writeHeader(bs,_len,nbits,bias);
+    final long na = (1L<<nbits)-1;
+    for( int i = 0; i < _len; i++ )
+      CNBChunk.writeCode(bs,nbits,i,isNA2(i) ? na : longVal(i)-bias);
+    return new CNBChunk(bs);
+  }
+
+  // Compute a run-length encoded buffer, or null if it would not be at most
+  // half the size of the per-row encoding.  Counting runs stops as soon as
+  // there are too many, so data without runs costs a short scan only.
+  private Chunk chunkRLE(long perRowBytes) {
+    long maxRuns = (perRowBytes/2 - CRLEChunk._OFF)/5; // 4-byte start + 1-byte value per run, at best
+    if( maxRuns <= 0 ) return null;
+    int nruns = 0;
+    long lo = Long.MAX_VALUE, hi = Long.MIN_VALUE, prev = 0;
+    boolean prevNA = false;
+    for( int i = 0; i < _len; i++ ) {
+      boolean na = isNA2(i);
+      long l = na ? 0 : longVal(i);
+      if( i == 0 || na != prevNA || l != prev ) {
+        if( ++nruns > maxRuns ) return null;
+        prevNA = na;  prev = l;
+      }
+      if( !na ) { lo = Math.min(lo,l); hi = Math.max(hi,l); }
+    }
+    long range = leRange(lo,hi);
+    int log = range < 255 ? 0 : range < 65535 ? 1 : range < 4294967295L ? 2 : 3;
+    if( log == 3 && lo == Long.MIN_VALUE ) return null; // Collides with the NA
+    long bias = log == 3 ? 0 : lo - (CRLEChunk.NAS[log]+1);
+    int size = CRLEChunk.computeByteSize(nruns,log);
+    if( 2L*size > perRowBytes ) return null;
+    byte[] bs = MemoryManager.malloc1(size);
+    CRLEChunk.writeHeader(bs,_len,nruns,log,bias);
+    int r = 0;
+    for( int i = 0; i < _len; i++ ) {
+      boolean na = isNA2(i);
+      long l = na ? 0 : longVal(i);
+      if( i == 0 || na != prevNA || l != prev ) {
+        CRLEChunk.writeRun(bs,nruns,log,r++,i,na ? CRLEChunk.NAS[log] : l-bias);
+        prevNA = na;  prev = l;
+      }
+    }
+    assert r == nruns;
+    return new CRLEChunk(bs);
+  }
+
+  // Compute a delta / frame-of-reference buffer, or null if it would be
+  // larger than maxBytes.  Each block of rows gets the line through its first
+  // and last value; rows are stored as their distance above that line.
+  private Chunk chunkFOR(long maxBytes) {
+    final int nblocks = CFORChunk.nblocks(_len);
+    long[] bases = new long[nblocks];
+    int [] slopes = new int[nblocks];
+    byte[] bits = new byte[nblocks];
+    boolean[] nas = new boolean[nblocks];
+    long size = CFORChunk.dataOffset(nblocks) + 8;
+    for( int b = 0; b < nblocks; b++ ) {
+      int lo = b*CFORChunk.BLOCK, hi = Math.min(_len,lo+CFORChunk.BLOCK);
+      int first = -1, last = -1;
+      for( int i = lo; i < hi; i++ )
+        if( isNA2(i) ) nas[b] = true;
+        else { if( first == -1 ) first = i;  last = i; }
+      long slope = 0;
+      if( last > first ) {
+        long vf = longVal(first), vl = longVal(last), d = vl-vf;
+        if( ((vl^vf)&(vl^d)) >= 0 ) // No overflow
+          slope = d/(last-first);
+        if( slope != (int)slope ) slope = 0;
+      }
+      long rmin = Long.MAX_VALUE, rmax = Long.MIN_VALUE;
+      for( int i = first; i != -1 && i <= last; i++ ) {
+        if( isNA2(i) ) continue;
+        long v = longVal(i), p = slope*(i-lo), r = v-p;
+        if( ((v^p)&(v^r)) < 0 ) return null; // Overflow
+        rmin = Math.min(rmin,r);  rmax = Math.max(rmax,r);
+      }
+      if( first == -1 ) rmin = rmax = 0; // All NAs
+      long range = rmax-rmin;
+      if( range < 0 ) return null;      // Overflow
+      int nb = 64-Long.numberOfLeadingZeros(range + (nas[b] ? 1 : 0));
+      if( nb > CFORChunk.MAX_BITS ) return null;
+      bases[b] = rmin;  slopes[b] = (int)slope;  bits[b] = (byte)nb;
+      size += ((long)nb*(hi-lo)+7)>>3;
+      if( size > maxBytes ) return null;
+    }
+    byte[] bs = MemoryManager.malloc1((int)size);
+    UnsafeUtils.set4(bs,0,_len);
+    int off = CFORChunk.dataOffset(nblocks);
+    for( int b = 0; b < nblocks; b++ ) {
+      int lo = b*CFORChunk.BLOCK, hi = Math.min(_len,lo+CFORChunk.BLOCK);
+      CFORChunk.writeHeader(bs,b,bases[b],slopes[b],off,bits[b],nas[b]);
+      long na = (1L<<bits[b])-1;
+      for( int i = lo; i < hi; i++ )
+        CFORChunk.writeCode(bs,off,bits[b],i-lo,isNA2(i) ? na : longVal(i)-(long)slopes[b]*(i-lo)-bases[b]);
+      off += ((long)bits[b]*(hi-lo)+7)>>3;
+    }
+    assert off+8 == size;
+    return new CFORChunk(bs);
+  }
+
   // Compute a compressed double buffer
   private Chunk chunkD() {
     HashMap<Long,Byte> hs = new HashMap<>(CUDChunk.MAX_UNIQUES);
@@ -1374,8 +1575,15 @@ public class NewChunk extends Chunk {
     assert j == _sparseLen :"j = " + j + ", _len = " + _sparseLen;
     if (fitsInUnique && CUDChunk.computeByteSize(hs.size(), len()) < 0.8 * bs.length)
       return new CUDChunk(bs, hs, len());
-    else
-      return new C8DChunk(bs);
+    if (C8XChunk.MIN_SAVING < 1) { // Slowly changing reals?  Try XOR-encoding
+      int xsz = C8XChunk.encode(bs, _len, null);
+      if (xsz <= (1 - C8XChunk.MIN_SAVING) * bs.length) {
+        byte[] xs = MemoryManager.malloc1(xsz);
+        C8XChunk.encode(bs, _len, xs);
+        return new C8XChunk(xs);
+      }
+    }
+    return new C8DChunk(bs);
   }
 
   // Compute a compressed UUID buffer
@@ -11,9 +11,11 @@ import water.nbhm.NonBlockingHashMap;
 import water.parser.Categorical;
 import water.parser.BufferedString;
 import water.util.ArrayUtils;
+import water.util.HyperLogLog;
 import water.util.Log;
 
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 /** A class to compute the rollup stats.  These are computed lazily, thrown
  *  away if the Vec is written into, and then recomputed lazily.  Error to ask
@@ -58,6 +60,16 @@ final class RollupStats extends Iced {
 
   public boolean hasHisto(){return _bins != null;}
 
+  // Estimate of the distinct values (NAs not counted); also computed in a
+  // separate pass, on-demand, by calling computeHLL
+  volatile HyperLogLog _hll;
+
+  public boolean hasHLL(){return _hll != null;}
+
+  // Per-chunk bounds, computed in the 1st pass; null for empty Vecs.  Moved
+  // under the Vec's zoneMapKey before the rollups are installed
+  ZoneMap _zones;
+
   // Check for: Vector is mutating and rollups cannot be asked for
   boolean isMutating() { return _naCnt==-2; }
   // Check for: Rollups currently being computed
@@ -236,6 +248,8 @@ final class RollupStats extends Iced {
     _size += rs._size;
     _isInt &= rs._isInt;
     _checksum ^= rs._checksum;
+    if( _zones == null ) _zones = rs._zones;
+    else if( rs._zones != null ) _zones.add(rs._zones);
   }
 
   double min( double d ) {
@@ -253,6 +267,47 @@ final class RollupStats extends Iced {
     return _maxs[_maxs.length-1];
   }
 
+  // A deep-enough copy to reduce into: reduce overwrites the min/max arrays,
+  // and appends to the zones
+  private RollupStats copy() {
+    RollupStats rs = (RollupStats)clone();
+    rs._mins = _mins.clone();
+    rs._maxs = _maxs.clone();
+    if( _zones != null ) rs._zones = (ZoneMap)_zones.clone();
+    return rs;
+  }
+
+  // Rollups of each Chunk, kept on its home node with the Chunk's Value.  A
+  // write to a Chunk puts a new Value in the K/V, so after an edit only the
+  // Chunks written are rolled up again, and the rest merge from their Values
+  // without loading their data - swapped-out Chunks stay on disk.  Kept
+  // rollups go with their Value when it is replaced or removed.
+
+  /** Chunks rolled up from their data, on this node, ever */
+  static final AtomicLong SCANS = new AtomicLong();
+
+  // Rollups (and zone) of a Chunk: kept ones if its Value was not replaced
+  // since, else computed from the Chunk
+  static RollupStats partial( Vec vec, int cidx ) {
+    if( vec.isVolatile() ) return scan(vec.chunkForChunkIdx(cidx)); // Written in place
+    Key k = vec.chunkKey(cidx);
+    Value val = Value.STORE_get(k);
+    RollupStats kept = val == null ? null : (RollupStats)val.rollups();
+    if( kept != null ) return kept.copy();
+    Chunk c = vec.chunkForChunkIdx(cidx);
+    RollupStats rs = scan(c);
+    if( val != null && Value.STORE_get(k) == val ) // Not replaced while scanning
+      val.setRollups(rs.copy());
+    return rs;
+  }
+
+  private static RollupStats scan( Chunk c ) {
+    SCANS.incrementAndGet();
+    RollupStats rs = new RollupStats(0).map(c);
+    rs._zones = ZoneMap.make(c, rs);
+    return rs;
+  }
+
   private static class Roll extends MRTask<Roll> {
     final Key _rskey;
     RollupStats _rs;
@@ -261,7 +316,12 @@ final class RollupStats extends Iced {
     protected boolean modifiesVolatileVecs(){return false;}
 
     Roll( H2OCountedCompleter cmp, Key rskey ) { super(cmp); _rskey=rskey; }
-    @Override public void map( Chunk c ) { _rs = new RollupStats(0).map(c); }
+    // Chunks are loaded by partial(), and only when not rolled up already
+    @Override protected int[] readColumns() { return new int[0]; }
+    @Override public void map( Chunk c ) {
+      assert c == null;
+      _rs = partial(_fr.anyVec(), _lo);
+    }
     @Override public void reduce( Roll roll ) { _rs.reduce(roll._rs); }
     @Override public void postGlobal() {
       if( _rs == null )
@@ -276,6 +336,7 @@ final class RollupStats extends Iced {
       }
       // mean & sigma not allowed on more than 2 classes; for 2 classes the assumption is that it's true/false
       Vec vec = _fr.anyVec();
+      if( _rs._zones != null ) _rs._zones = _rs._zones.dense(vec.nChunks());
       String[] ss = vec.domain();
       if( vec.isCategorical() && ss.length > 2 )
         _rs._mean = _rs._sigma = Double.NaN;
@@ -317,7 +378,8 @@ final class RollupStats extends Iced {
 
   private static NonBlockingHashMap<Key,RPC> _pendingRollups = new NonBlockingHashMap<>();
 
-  static RollupStats get(Vec vec, boolean computeHisto) {
+  static RollupStats get(Vec vec, boolean computeHisto) { return get(vec, computeHisto, false); }
+  static RollupStats get(Vec vec, boolean computeHisto, boolean computeHLL) {
     if( DKV.get(vec._key)== null ) {
       throw new RuntimeException("Rollups not possible, because Vec was deleted: " + vec._key);
     }
@@ -326,12 +388,12 @@ final class RollupStats extends Iced {
     }
     final Key rskey = vec.rollupStatsKey();
     RollupStats rs = DKV.getGet(rskey);
-    while(rs == null || (!rs.isReady() || (computeHisto && !rs.hasHisto()))){
+    while(rs == null || (!rs.isReady() || (computeHisto && !rs.hasHisto()) || (computeHLL && !rs.hasHLL()))){
       if(rs != null && rs.isMutating())
         throw new IllegalArgumentException("Can not compute rollup stats while vec is being modified. (1)");
       // 1. compute only once
       try {
-        RPC rpcNew = new RPC(rskey.home_node(),new ComputeRollupsTask(vec, computeHisto));
+        RPC rpcNew = new RPC(rskey.home_node(),new ComputeRollupsTask(vec, computeHisto, computeHLL));
         RPC rpcOld = _pendingRollups.putIfAbsent(rskey, rpcNew);
         if(rpcOld == null) {  // no prior pending task, need to send this one
           rpcNew.call().get();
@@ -386,6 +448,36 @@ final class RollupStats extends Iced {
     @Override public boolean logVerbose() { return false; }
   }
 
+  // Sketch the distinct values
+  private static class Distinct extends MRTask<Distinct> {
+    HyperLogLog _hll;           // Outputs
+    @Override public void map( Chunk c ) {
+      _hll = new HyperLogLog();
+      if( c._vec.isString() ) {
+        BufferedString tmpStr = new BufferedString();
+        for( int i=c.nextNZ(-1); i< c._len; i=c.nextNZ(i) )
+          if( !c.isNA(i) ) {
+            c.atStr(tmpStr, i);
+            _hll.add(tmpStr.getBuffer(), tmpStr.getOffset(), tmpStr.length());
+          }
+        return;                 // Sparse strings skip NAs only
+      }
+      boolean isUUID = c._vec.isUUID();
+      for( int i=c.nextNZ(-1); i< c._len; i=c.nextNZ(i) )
+        if( !c.isNA(i) ) {
+          if( isUUID ) _hll.addHash(HyperLogLog.hash(c.at16l(i) ^ HyperLogLog.hash(c.at16h(i))));
+          else _hll.add(c.atd(i));
+        }
+      // Sparse?  We skipped all the zeros; count them once
+      if( c.isSparseZero() && c.sparseLenZero() < c._len ) {
+        if( isUUID ) _hll.addHash(HyperLogLog.hash(HyperLogLog.hash(0)));
+        else _hll.add(0);
+      }
+    }
+    @Override public void reduce( Distinct d ) { _hll.merge(d._hll); }
+    @Override public boolean logVerbose() { return false; }
+  }
+
 
   // Task to compute rollups on its homenode if needed.
   // Only computes the rollups, does not fetch them, caller should fetch them via DKV store (to preserve caching).
@@ -396,12 +488,15 @@ final class RollupStats extends Iced {
     final Key _vecKey;
     final Key _rsKey;
     final boolean _computeHisto;
+    final boolean _computeHLL;
 
-    public ComputeRollupsTask(Vec v, boolean computeHisto){
+    public ComputeRollupsTask(Vec v, boolean computeHisto){ this(v, computeHisto, false); }
+    public ComputeRollupsTask(Vec v, boolean computeHisto, boolean computeHLL){
       super((byte)(Thread.currentThread() instanceof H2O.FJWThr ? currThrPriority()+1 : H2O.MIN_HI_PRIORITY-3));
       _vecKey = v._key;
       _rsKey = v.rollupStatsKey();
       _computeHisto = computeHisto;
+      _computeHLL = computeHLL;
     }
 
     private Value makeComputing(){
@@ -413,6 +508,12 @@ final class RollupStats extends Iced {
     }
     private void installResponse(Value nnn, RollupStats rs) {
       Futures fs = new Futures();
+      // Zone maps go under their own Key, ahead of the rollups that signal them ready
+      if( rs._zones != null ) {
+        DKV.put(Vec.zoneMapKey(_vecKey), rs._zones, fs);
+        fs.blockForPending();   // Homed apart from the rollups; land it first
+        rs._zones = null;
+      }
       Value old = DKV.DputIfMatch(_rsKey, new Value(_rsKey, rs), nnn, fs);
       assert rs.isReady();
       if(old != nnn)
@@ -436,7 +537,7 @@ final class RollupStats extends Iced {
         //   d) null      => compute new rollups
         if (rs != null) {
           if (rs.isReady()) {
-            if (_computeHisto && !rs.hasHisto()) { // a.2 => compute rollups
+            if ((_computeHisto && !rs.hasHisto()) || (_computeHLL && !rs.hasHLL())) { // a.2 => compute rollups
               CountedCompleter cc = getCompleter(); // should be null or RPCCall
               if(cc != null) assert cc.getCompleter() == null;
               // note: if cc == null then onExceptionalCompletion tasks waiting on this may be woken up before exception handling iff exception is thrown.
@@ -445,7 +546,7 @@ final class RollupStats extends Iced {
               Value oldv = DKV.DputIfMatch(_rsKey, nnn, v, fs);
               fs.blockForPending();
               if(oldv == v){ // got the lock
-                computeHisto(rs, vec, nnn);
+                computeExtras(rs, vec, nnn);
                 break;
               } // else someone else is modifying the rollups => try again
             } else
@@ -464,10 +565,7 @@ final class RollupStats extends Iced {
               Roll r = new Roll(null, _rsKey).doAll(vec);
               // computed the stats, now compute histo if needed and install the response and quit
               r._rs._checksum ^= vec.length();
-              if (_computeHisto)
-                computeHisto(r._rs, vec, nnn);
-              else
-                installResponse(nnn, r._rs);
+              computeExtras(r._rs, vec, nnn);
               break;
             } catch (Exception e) {
               Log.err(e);
@@ -488,11 +586,19 @@ final class RollupStats extends Iced {
       return success;
     }
 
-    final void computeHisto(final RollupStats rs, Vec vec, final Value nnn) {
+    // Compute the on-demand passes asked for, then install the rollups
+    private void computeExtras(final RollupStats rs, Vec vec, final Value nnn) {
+      if (_computeHisto && !rs.hasHisto() && !vec.isString())
+        computeHisto(rs, vec);
+      if (_computeHLL && !rs.hasHLL())
+        rs._hll = rs._naCnt == vec.length() ? new HyperLogLog() : new Distinct().doAll(vec)._hll;
+      installResponse(nnn, rs);
+    }
+
+    final void computeHisto(final RollupStats rs, Vec vec) {
       // All NAs or non-math; histogram has zero bins
       if (rs._naCnt == vec.length() || vec.isUUID()) {
         rs._bins = new long[0];
-        installResponse(nnn, rs);
         return;
       }
       // Constant: use a single bin
@@ -501,7 +607,6 @@ final class RollupStats extends Iced {
       assert rows > 0 : "rows = " + rows + ", vec.len() = " + vec.length() + ", naCnt = " + rs._naCnt;
       if (span == 0) {
         rs._bins = new long[]{rows};
-        installResponse(nnn, rs);
         return;
       }
       // Number of bins: MAX_SIZE by default.  For integers, bins for each unique int
@@ -547,7 +652,6 @@ final class RollupStats extends Iced {
         } // otherwise either h==0 and we know which bin, or fraction is between two positions that fall in the same bin
         // this guarantees we are within one bin of the exact answer; i.e. within (max-min)/MAX_SIZE
       }
-      installResponse(nnn, rs);
     }
   }
 }
@@ -1,6 +1,7 @@
 package water.fvec;
 
 import java.util.Arrays;
+import java.io.IOException;
 import java.io.InputStream;
 import water.*;
 import water.util.Log;
@@ -63,33 +64,9 @@ public class UploadFileVec extends FileVec {
   static private Key readPut_impl(Key key, InputStream is, ReadPutStats stats) throws Exception {
     Log.info("Reading byte InputStream into Frame:");
     Log.info("    frameKey:    " + key.toString());
-    Key newVecKey = Vec.newKey();
-    UploadFileVec uv = null;
     try {
       new Frame(key,new String[0],new Vec[0]).delete_and_lock();
-      uv = new UploadFileVec(newVecKey);
-      assert uv.writable();
-      Futures fs = new Futures();
-      byte prev[] = null;
-      byte bytebuf[] = new byte[FileVec.DFLT_CHUNK_SIZE];
-      int bytesInChunkSoFar = 0;
-      while (true) {
-        int rv = is.read(bytebuf, bytesInChunkSoFar, FileVec.DFLT_CHUNK_SIZE - bytesInChunkSoFar);
-        if (rv < 0) break;
-        bytesInChunkSoFar += rv;
-        if( bytesInChunkSoFar == FileVec.DFLT_CHUNK_SIZE ) {
-          // Write full chunk of size FileVec.CHUNK_SZ.
-          C1NChunk c = new C1NChunk(bytebuf);
-          uv.addAndCloseChunk(c, fs);
-          prev = bytebuf;
-          bytebuf = new byte[FileVec.DFLT_CHUNK_SIZE];
-          bytesInChunkSoFar = 0;
-        }
-      }
-      if(bytesInChunkSoFar > 0) { // last chunk can be a little smaller
-        byte [] buf2 = Arrays.copyOf(bytebuf,bytesInChunkSoFar);
-        uv.close(new C1NChunk(buf2),uv._nchunks++,fs);
-      }
+      ByteVec uv = readVec(is);
       if( stats != null ) {
         stats.total_chunks = uv.nChunks();
         stats.total_bytes  = uv.length();
@@ -97,25 +74,63 @@ public class UploadFileVec extends FileVec {
       Log.info("    totalChunks: " + uv.nChunks());
       Log.info("    totalBytes:  " + uv.length());
 
-      DKV.put(newVecKey, uv, fs);
-      fs.blockForPending();
       Frame f = new Frame(key,new String[]{"bytes"}, new Vec[]{uv});
       f.unlock();
 
       Log.info("    Success.");
     }
     catch (Exception e) {
-      // Clean up and do not leak keys.
-      Log.err("Exception caught in Frame::readPut; attempting to clean up the new frame and vector");
+      // Clean up and do not leak keys; readVec removed its own chunks
+      Log.err("Exception caught in Frame::readPut; attempting to clean up the new frame");
       Log.err(e);
       Lockable.delete(key);
-      if( uv != null ) uv.remove(newVecKey);
-      Log.err("Frame::readPut cleaned up new frame and vector successfully");
+      Log.err("Frame::readPut cleaned up new frame successfully");
       throw e;
     }
     return key;
   }
 
+  // Chunks put but not yet acknowledged, at most, while reading a stream
+  private static final int PUTS_IN_FLIGHT = 16;
+
+  /** Read a stream into a new Vec of bytes, with no Frame around it.  The
+   *  Chunks are spread over the cloud by their Keys like any uploaded file,
+   *  and each is put while the next one is read, so a slow stream (such as
+   *  a decompressing one) keeps going while the Chunks travel.
+   *  @return the new Vec, in the K/V store */
+  static public ByteVec readVec(InputStream is) throws IOException {
+    UploadFileVec uv = new UploadFileVec(Vec.newKey());
+    Futures fs = new Futures();
+    try {
+      byte bytebuf[] = new byte[FileVec.DFLT_CHUNK_SIZE];
+      int bytesInChunkSoFar = 0;
+      while (true) {
+        int rv = is.read(bytebuf, bytesInChunkSoFar, FileVec.DFLT_CHUNK_SIZE - bytesInChunkSoFar);
+        if (rv < 0) break;
+        bytesInChunkSoFar += rv;
+        if( bytesInChunkSoFar == FileVec.DFLT_CHUNK_SIZE ) {
+          uv.addAndCloseChunk(new C1NChunk(bytebuf), fs);
+          if( uv._nchunks % PUTS_IN_FLIGHT == 0 ) { fs.blockForPending(); fs = new Futures(); }
+          bytebuf = new byte[FileVec.DFLT_CHUNK_SIZE];
+          bytesInChunkSoFar = 0;
+        }
+      }
+      if( bytesInChunkSoFar > 0 || uv._nchunks == 0 ) // last chunk can be a little smaller
+        uv.close(new C1NChunk(Arrays.copyOf(bytebuf,bytesInChunkSoFar)),uv._nchunks++,fs);
+      else                      // Ended on a chunk boundary
+        uv._len = (long)uv._nchunks*uv._chunkSize;
+      DKV.put(uv._key, uv, fs);
+      fs.blockForPending();
+    } catch( IOException | RuntimeException e ) {
+      fs.blockForPending();     // Do not leak the chunks put so far
+      Futures rm = new Futures();
+      for( int i=0; i<uv._nchunks; i++ ) DKV.remove(uv.chunkKey(i), rm);
+      rm.blockForPending();
+      throw e;
+    }
+    return uv;
+  }
+
   @Override // not supported for now, can do rebalance later
   public int setChunkSize(Frame fr, int chunkSize) {return _chunkSize;}
 }
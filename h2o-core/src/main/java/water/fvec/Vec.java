@@ -842,6 +842,30 @@ public class Vec extends Keyed<Vec> {
    *  @return A set of percentiles */
   public double[] pctiles() { return RollupStats.get(this, true)._pctiles;   }
 
+  /** A cheap estimate of the count of distinct non-NA values, from a
+   *  HyperLogLog sketch computed on first use and cached thereafter, like the
+   *  histogram.  Within a few percent; close to exact for small counts.
+   *  @return Estimated cardinality */
+  public long distinctEstimate() { return RollupStats.get(this, false, true)._hll.estimate(); }
+
+  /** The min, max and NA count of every Chunk, computed with the rollups but
+   *  kept under its own Key, so plain rollup fetches do not carry it.
+   *  @return the zone map, or null for an empty Vec */
+  public ZoneMap zoneMap() {
+    rollupStats();
+    Value val = DKV.get(zoneMapKey());
+    return val == null ? null : val.<ZoneMap>get();
+  }
+
+  /** The zone map, only if the rollups are already computed: cheap enough to
+   *  try before work that does not need the rollups otherwise.
+   *  @return the zone map, or null if the rollups are not ready or the Vec is empty */
+  public ZoneMap zoneMapIfReady() {
+    if( RollupStats.getOrNull(this,rollupStatsKey()) == null ) return null;
+    Value val = DKV.get(zoneMapKey());
+    return val == null ? null : val.<ZoneMap>get();
+  }
+
 
   /** Compute the roll-up stats as-needed */
   private RollupStats rollupStats() { return RollupStats.get(this); }
@@ -907,8 +931,10 @@ public class Vec extends Keyed<Vec> {
       Value val = DKV.get(rollupStatsKey());
       if (val != null) {
         RollupStats rs = val.get(RollupStats.class);
-        if (rs.isMutating())  // Vector was mutating, is now allowed for rollups
+        if (rs.isMutating()) {// Vector was mutating, is now allowed for rollups
+          DKV.remove(zoneMapKey(), fs);
           DKV.remove(rskey, fs);// Removing will cause them to be rebuilt, on demand
+        }
       }
     }
     return fs;                  // Flow-coding
@@ -963,6 +989,8 @@ public class Vec extends Keyed<Vec> {
     if( _rollupStatsKey==null ) _rollupStatsKey=chunkKey(-2);
     return _rollupStatsKey;
   }
+  public Key zoneMapKey() { return zoneMapKey(_key); }
+  static Key zoneMapKey( Key veckey ) { return chunkKey(veckey,-3); }
 
   /** Get a Chunk's Value by index.  Basically the index-to-key map, plus the
    *  {@code DKV.get()}.  Warning: this pulls the data locally; using this call
@@ -1298,7 +1326,7 @@ public class Vec extends Keyed<Vec> {
     // Remove RollupStats
     new MRTask() {
       @Override public void setupLocal() {
-        for( Key k : keys ) if( k != null ) H2O.raw_remove(chunkKey(k,-2));
+        for( Key k : keys ) if( k != null ) { H2O.raw_remove(chunkKey(k,-2)); H2O.raw_remove(zoneMapKey(k)); }
       }
     }.doAllNodes();
   }
@@ -1312,6 +1340,7 @@ public class Vec extends Keyed<Vec> {
       H2O.raw_remove(kc);
     }
     H2O.raw_remove(vkey);
+    EvictionPolicy.unpin(vkey);
   }
 
   /** Write out K/V pairs */
@@ -0,0 +1,86 @@
+package water.fvec;
+
+import water.Iced;
+
+import java.util.Arrays;
+
+/** Zone map of a Vec - the min, max and NA count of every Chunk.
+ *
+ *  <p>Computed with the rollups, so it is as current as {@link Vec#min} and
+ *  {@link Vec#max}: filters can rule out whole Chunks from these bounds, and
+ *  skip them without loading their data.  The bounds are of the non-NA
+ *  values, infinities included; a Chunk of NAs only has {@code min > max}.
+ *
+ *  <p>While the rollups are reduced it holds the zones of the Chunks seen so
+ *  far, in any order; {@link #dense} puts them in Chunk order.  Chunks with no
+ *  zone have unknown bounds: -/+ infinity, and an NA count of -1.
+ */
+public class ZoneMap extends Iced<ZoneMap> {
+  private int[] _cidxs;         // Chunk of each zone, until dense
+  private double[] _mins, _maxs;
+  private int[] _nas;
+
+  private ZoneMap(int cidx, double min, double max, int nas) {
+    _cidxs = new int[]{cidx};
+    _mins = new double[]{min};
+    _maxs = new double[]{max};
+    _nas = new int[]{nas};
+  }
+
+  private ZoneMap(int nChunks) {
+    _mins = new double[nChunks];
+    _maxs = new double[nChunks];
+    _nas = new int[nChunks];
+    Arrays.fill(_mins, Double.NEGATIVE_INFINITY);
+    Arrays.fill(_maxs, Double.POSITIVE_INFINITY);
+    Arrays.fill(_nas, -1);
+  }
+
+  /** Zone of one Chunk, from its rollups */
+  static ZoneMap make( Chunk c, RollupStats rs ) {
+    double min = rs._ninfs > 0 ? Double.NEGATIVE_INFINITY : rs._mins[0];
+    double max = rs._pinfs > 0 ? Double.POSITIVE_INFINITY : rs._maxs[0];
+    if( rs._naCnt == c._len ) {   // All NAs: empty range
+      min = Double.POSITIVE_INFINITY;
+      max = Double.NEGATIVE_INFINITY;
+    } else if( Double.isNaN(min) || Double.isNaN(max) ) { // No bounds kept (strings, UUIDs)
+      min = Double.NEGATIVE_INFINITY;
+      max = Double.POSITIVE_INFINITY;
+    }
+    return new ZoneMap(c.cidx(), min, max, (int)rs._naCnt);
+  }
+
+  /** Append the zones of other Chunks */
+  void add( ZoneMap zm ) {
+    assert _cidxs != null && zm._cidxs != null;
+    int n = _cidxs.length, m = zm._cidxs.length;
+    _cidxs = Arrays.copyOf(_cidxs, n + m);
+    _mins = Arrays.copyOf(_mins, n + m);
+    _maxs = Arrays.copyOf(_maxs, n + m);
+    _nas = Arrays.copyOf(_nas, n + m);
+    System.arraycopy(zm._cidxs, 0, _cidxs, n, m);
+    System.arraycopy(zm._mins, 0, _mins, n, m);
+    System.arraycopy(zm._maxs, 0, _maxs, n, m);
+    System.arraycopy(zm._nas, 0, _nas, n, m);
+  }
+
+  /** @return the zones indexed by Chunk */
+  ZoneMap dense( int nChunks ) {
+    ZoneMap zm = new ZoneMap(nChunks);
+    for( int i = 0; i < _cidxs.length; i++ ) {
+      int c = _cidxs[i];
+      zm._mins[c] = _mins[i];
+      zm._maxs[c] = _maxs[i];
+      zm._nas[c] = _nas[i];
+    }
+    return zm;
+  }
+
+  public int nChunks() { assert _cidxs == null; return _mins.length; }
+  /** Least non-NA value of the Chunk */
+  public double min( int cidx ) { return _mins[cidx]; }
+  /** Greatest non-NA value of the Chunk */
+  public double max( int cidx ) { return _maxs[cidx]; }
+  /** NAs in the Chunk, or -1 if not known */
+  public int naCnt( int cidx ) { return _nas[cidx]; }
+}
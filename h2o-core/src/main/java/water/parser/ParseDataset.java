@@ -577,6 +577,8 @@ public final class ParseDataset {
     private static final int TOO_MANY_KEYS_COUNT = 128;
     // A file is considered to be small if it can fit into <SMALL_FILE_NCHUNKS> number of chunks.
     private static final int SMALL_FILE_NCHUNKS = 10;
+    // Set to parse compressed files as they decompress, on one core, as before
+    private static final boolean SERIAL_INFLATE = Boolean.getBoolean(H2O.OptArgs.SYSTEM_PROP_PREFIX + "parse.inflate.serial");
 
     private final ParseSetup _parseSetup; // The expected column layout
     private final VectorGroup _vg;    // vector group of the target dataset
@@ -732,7 +734,7 @@ public final class ParseDataset {
           boolean disableParallelParse = localSetup.disableParallelParse || (_keys.length > TOO_MANY_KEYS_COUNT) &&
                   (vec.nChunks() <= SMALL_FILE_NCHUNKS) && _parseSetup._parse_type.isStreamParseSupported();
           if( _parseSetup._parse_type.isParallelParseSupported() && (! disableParallelParse)) {
-            new DistributedParse(_vg, localSetup, _vecIdStart, chunkStartIdx, this, key, vec.nChunks()).dfork(vec).getResult(false);
+            new DistributedParse(_vg, localSetup, _vecIdStart, chunkStartIdx, this, key, vec.nChunks(), 1).dfork(vec).getResult(false);
             for( int i = 0; i < vec.nChunks(); ++i )
               _chunk2ParseNodeMap[chunkStartIdx + i] = vec.chunkKey(i).home_node().index();
           } else {
@@ -746,6 +748,12 @@ public final class ParseDataset {
           }
           break;
         case ZIP: {
+          if( inflateForParallelParse(localSetup) && !ZipUtil.isZipDirectory(key) && ZipUtil.getFileNames(vec).size() == 1 ) {
+            ZipInputStream zis = new ZipInputStream(vec.openStream(null));
+            zis.getNextEntry();   // The one file
+            parseInflated(zis, localSetup, key, vec);
+            break;
+          }
           localSetup = ParserService.INSTANCE.getByInfo(localSetup._parse_type).setupLocal(vec,localSetup);
           // Zipped file; no parallel decompression;
           InputStream bvs = vec.openStream(_jobKey);
@@ -764,6 +772,10 @@ public final class ParseDataset {
           break;
         }
         case GZIP: {
+          if( inflateForParallelParse(localSetup) ) {
+            parseInflated(new GZIPInputStream(vec.openStream(null)), localSetup, key, vec);
+            break;
+          }
           localSetup = ParserService.INSTANCE.getByInfo(localSetup._parse_type).setupLocal(vec,localSetup);
           InputStream bvs = vec.openStream(_jobKey);
           // Zipped file; no parallel decompression;
@@ -794,9 +806,14 @@ public final class ParseDataset {
       else if(_dout != mfpt._dout) _dout = ArrayUtils.append(_dout,mfpt._dout);
       if( _chunk2ParseNodeMap == null ) _chunk2ParseNodeMap = mfpt._chunk2ParseNodeMap;
       else if(_chunk2ParseNodeMap != mfpt._chunk2ParseNodeMap) { // we're sharing global array!
-        for( int i = 0; i < _chunk2ParseNodeMap.length; ++i ) {
-          if( _chunk2ParseNodeMap[i] == -1 ) _chunk2ParseNodeMap[i] = mfpt._chunk2ParseNodeMap[i];
-          else assert mfpt._chunk2ParseNodeMap[i] == -1 : Arrays.toString(_chunk2ParseNodeMap) + " :: " + Arrays.toString(mfpt._chunk2ParseNodeMap);
+        int[] other = mfpt._chunk2ParseNodeMap;
+        if( other.length > _chunk2ParseNodeMap.length ) { // Keep the longer: a decompressed file has more chunks
+          other = _chunk2ParseNodeMap;
+          _chunk2ParseNodeMap = mfpt._chunk2ParseNodeMap;
+        }
+        for( int i = 0; i < other.length; ++i ) {
+          if( _chunk2ParseNodeMap[i] == -1 ) _chunk2ParseNodeMap[i] = other[i];
+          else assert other[i] == -1 : Arrays.toString(_chunk2ParseNodeMap) + " :: " + Arrays.toString(other);
         }
       }
       if(_errors == null)
@@ -809,6 +826,40 @@ public final class ParseDataset {
       Log.trace("Finished a reduce stage of a file parse.");
     }
 
+    // ------------------------------------------------------------------------
+    // A compressed file parses in parallel when it is the only file: its
+    // decompressed chunks can then outnumber its compressed ones, which fix
+    // where the chunks of any next file start.
+    private boolean inflateForParallelParse(ParseSetup localSetup) {
+      return !SERIAL_INFLATE && _keys.length == 1 && !localSetup.disableParallelParse
+          && _parseSetup._parse_type.isParallelParseSupported();
+    }
+
+    // Decompress into a plain Vec of bytes spread over the cloud, then parse
+    // that in parallel like any uncompressed file.  The decompression is one
+    // stream still, but overlaps with putting the chunks, and the parse -
+    // most of the work - runs on every core of every node.
+    private void parseInflated(InputStream is, ParseSetup localSetup, Key key, ByteVec vec) throws IOException {
+      long start = System.currentTimeMillis();
+      ByteVec inflated;
+      try {
+        inflated = UploadFileVec.readVec(is);
+      } finally {
+        is.close();
+      }
+      Log.info("Decompressed " + key + " into " + inflated.nChunks() + " chunks in " + (System.currentTimeMillis() - start) / 1000. + " (s)");
+      try {
+        int nchunks = inflated.nChunks();
+        _chunk2ParseNodeMap = MemoryManager.malloc4(nchunks); // The only file: its chunks are all the chunks
+        double progressScale = (double) vec.length() / Math.max(1, inflated.length()); // Progress is in file bytes
+        new DistributedParse(_vg, localSetup, _vecIdStart, 0, this, key, nchunks, progressScale, true).dfork(inflated).getResult(false);
+        for( int i = 0; i < nchunks; ++i )
+          _chunk2ParseNodeMap[i] = inflated.chunkKey(i).home_node().index();
+      } finally {
+        inflated.remove();
+      }
+    }
+
     // ------------------------------------------------------------------------
     // Zipped file; no parallel decompression; decompress into local chunks,
     // parse local chunks; distribute chunks later.
@@ -841,8 +892,13 @@ public final class ParseDataset {
       private transient NonBlockingSetInt _visited;
       private transient long [] _espc;
       final int _nchunks;
+      private final double _progressScale; // Job progress per byte parsed
+      private final boolean _tmpSource; // Parsing a temporary Vec: drop its chunks once parsed
 
-      DistributedParse(VectorGroup vg, ParseSetup setup, int vecIdstart, int startChunkIdx, MultiFileParseTask mfpt, Key srckey, int nchunks) {
+      DistributedParse(VectorGroup vg, ParseSetup setup, int vecIdstart, int startChunkIdx, MultiFileParseTask mfpt, Key srckey, int nchunks, double progressScale) {
+        this(vg, setup, vecIdstart, startChunkIdx, mfpt, srckey, nchunks, progressScale, false);
+      }
+      DistributedParse(VectorGroup vg, ParseSetup setup, int vecIdstart, int startChunkIdx, MultiFileParseTask mfpt, Key srckey, int nchunks, double progressScale, boolean tmpSource) {
         super(null);
         _vg = vg;
         _setup = setup;
@@ -853,6 +909,8 @@ public final class ParseDataset {
         _jobKey = mfpt._jobKey;
         _srckey = srckey;
         _nchunks = nchunks;
+        _progressScale = progressScale;
+        _tmpSource = tmpSource;
       }
       @Override public void setupLocal(){
         super.setupLocal();
@@ -896,7 +954,7 @@ public final class ParseDataset {
         }
         p.parseChunk(in.cidx(), din, dout);
         (_dout = dout).close(_fs);
-        Job.update(in._len, _jobKey); // Record bytes parsed
+        Job.update((long) (in._len * _progressScale), _jobKey); // Record bytes parsed
         // remove parsed data right away
         freeMem(in);
       }
@@ -906,6 +964,8 @@ public final class ParseDataset {
        * time a chunk has been marked, it is freed. The reason two marks are required
        * is that each chunk parse typically needs to read the remaining bytes of the
        * current row from the next chunk.  Thus each task typically touches two chunks.
+       * Chunks of a temporary source (a decompressed file) are removed outright,
+       * as nothing reads them after the parse.
        *
        * @param in - chunk to be marked and possibly freed
        */
@@ -914,6 +974,10 @@ public final class ParseDataset {
         for(int i=0; i < 2; i++) {  // iterate over this chunk and the next one
           cidx += i;
           if (!_visited.add(cidx)) { // Second visit
+            if (_tmpSource) {
+              if (cidx < in.vec().nChunks()) DKV.remove(in.vec().chunkKey(cidx), _fs);
+              continue;
+            }
             Value v = Value.STORE_get(in.vec().chunkKey(cidx));
             if (v == null || !v.isPersisted()) return; // Not found, or not on disk somewhere
             v.freePOJO();           // Eagerly toss from memory
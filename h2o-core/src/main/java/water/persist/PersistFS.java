@@ -3,6 +3,10 @@ package water.persist;
 import java.io.*;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import water.*;
 import water.api.FSIOException;
@@ -42,6 +46,7 @@ final class PersistFS extends Persist {
 
   @Override public byte[] load(Value v) throws IOException {
     File f = getFile(v);
+    if( COMPRESS ) return loadCompressed(f,v);
     if( f.length() < v._max ) { // Should be fully on disk...
       // or it's a racey delete of a spilled value
       assert !v.isPersisted() : f.length() + " " + v._max + " " + v._key;
@@ -61,18 +66,58 @@ final class PersistFS extends Persist {
     File dirs = new File(_dir, getIceDirectory(v._key));
     if( !dirs.mkdirs() && !dirs.exists() )
       throw new java.io.IOException("mkdirs failed making "+dirs);
+    if( COMPRESS ) { storeCompressed(getFile(v),v); return; }
     try(FileOutputStream s = new FileOutputStream(getFile(v))) {
-        byte[] m = v.memOrLoad(); // we are not single threaded anymore
-        if( m != null && m.length != v._max ) {
-          Log.warn("Value size mismatch? " + v._key + " byte[].len=" + m.length+" v._max="+v._max);
-          v._max = m.length; // Implies update of underlying POJO, then re-serializing it without K/V storing it
-        }
+        byte[] m = checkedMem(v); // we are not single threaded anymore
         new AutoBuffer(s.getChannel(), false, Value.ICE).putA1(m, m.length).close();
       } catch( AutoBuffer.AutoBufferException abe ) {
       throw abe._ioe;
     }
   }
 
+  private static byte[] checkedMem(Value v) {
+    byte[] m = v.memOrLoad();
+    if( m != null && m.length != v._max ) {
+      Log.warn("Value size mismatch? " + v._key + " byte[].len=" + m.length+" v._max="+v._max);
+      v._max = m.length; // Implies update of underlying POJO, then re-serializing it without K/V storing it
+    }
+    return m;
+  }
+
+  // ---
+  // Optional compression of swapped Values, enabled with
+  // -Dsys.ai.h2o.persist.swap.compress=true.  Uses the fastest Deflate level:
+  // Chunks are already compressed column-wise, so the win is mostly in
+  // trading a little CPU for a lot less disk bandwidth on repetitive data.
+  static final boolean COMPRESS = Boolean.getBoolean(H2O.OptArgs.SYSTEM_PROP_PREFIX + "persist.swap.compress");
+  private static final int COMPRESS_BUF = 1<<16;
+
+  static void storeCompressed(File f, Value v) throws IOException {
+    Deflater def = new Deflater(Deflater.BEST_SPEED);
+    try(OutputStream os = new DeflaterOutputStream(new FileOutputStream(f), def, COMPRESS_BUF)) {
+      os.write(checkedMem(v));
+    } finally {
+      def.end();
+    }
+  }
+
+  static byte[] loadCompressed(File f, Value v) throws IOException {
+    if( !f.exists() ) { // Racey delete of a spilled value
+      assert !v.isPersisted() : v._key;
+      return null; // No value
+    }
+    Inflater inf = new Inflater();
+    try(DataInputStream is = new DataInputStream(new InflaterInputStream(new FileInputStream(f), inf, COMPRESS_BUF))) {
+      byte[] b = MemoryManager.malloc1(v._max);
+      is.readFully(b);
+      return b;
+    } catch( EOFException eof ) {
+      throw new IOException("Swap file "+f+" of "+v._key+" is truncated: expected "+v._max+" bytes inflated");
+    } finally {
+      inf.end();
+    }
+  }
+
   @Override public void delete(Value v) {
     getFile(v).delete();        // Silently ignore errors
     // Attempt to delete empty containing directory
@@ -52,6 +52,8 @@ public class PersistManager {
       delete_count = new AtomicLong();
       load_count = new AtomicLong();
       load_bytes = new AtomicLong();
+      store_ns = new AtomicLong();
+      load_ns = new AtomicLong();
     }
 
     public AtomicLong store_count;
@@ -59,6 +61,8 @@ public class PersistManager {
     public AtomicLong delete_count;
     public AtomicLong load_count;
     public AtomicLong load_bytes;
+    public AtomicLong store_ns;
+    public AtomicLong load_ns;
   }
 
   private Persist[] I;
@@ -148,7 +152,10 @@ public class PersistManager {
 
   public void store(int backend, Value v) throws IOException {
     stats[backend].store_count.incrementAndGet();
+    long start = System.nanoTime();
     I[backend].store(v);
+    stats[backend].store_ns.addAndGet(System.nanoTime() - start);
+    stats[backend].store_bytes.addAndGet(v._max);
   }
 
   public void delete(int backend, Value v) {
@@ -158,7 +165,9 @@ public class PersistManager {
 
   public byte[] load(int backend, Value v) throws IOException {
     stats[backend].load_count.incrementAndGet();
+    long start = System.nanoTime();
     byte[] arr = I[backend].load(v);
+    stats[backend].load_ns.addAndGet(System.nanoTime() - start);
     stats[backend].load_bytes.addAndGet(arr.length);
     return arr;
   }
@@ -0,0 +1,57 @@
+package water.rapids;
+
+import water.H2O;
+import water.Weaver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An elementwise Rapids expression compiled to a Java class by
+ * {@link Weaver#genClass}: one tight loop over the rows of dense double
+ * buffers, with each operator called on its exact class so the JIT can
+ * inline it.  The operators and constants are arguments, not part of the
+ * code, so one class serves every expression of the same shape; classes are
+ * cached by the source of the loop body, on each node.  The cache is
+ * bounded and evicts least-recently-used; each class has a loader of its own,
+ * so an evicted class is unloaded once no running stage still uses it.
+ */
+public abstract class CompiledExpr {
+  /** Maximum number of compiled classes kept per node */
+  static final int CACHE_SIZE = Integer.getInteger(H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.compiled.cache", 256);
+
+  private static final LinkedHashMap<String, CompiledExpr> CACHE = new LinkedHashMap<String, CompiledExpr>(16, 0.75f, true) {
+    @Override protected boolean removeEldestEntry(Map.Entry<String, CompiledExpr> eldest) { return size() > CACHE_SIZE; }
+  };
+  private static final AtomicInteger NCLASSES = new AtomicInteger();
+
+  /**
+   * Compute out[i] for rows [0,len), from the input columns in[j][i], the
+   * constants k, and the operator instances ops.
+   */
+  public abstract void eval(double[][] in, double[] k, Object[] ops, double[] out, int len);
+
+  /** The compiled class for a loop body, from the cache or compiled now */
+  static CompiledExpr get(String body) {
+    synchronized( CACHE ) {
+      CompiledExpr ce = CACHE.get(body);
+      if( ce != null ) return ce;
+      String src = "public void eval(double[][] in, double[] k, Object[] ops, double[] out, int len) {\n" + body + "}";
+      Class clz = Weaver.genClass(new Weaver.GenLoader(), CompiledExpr.class.getName() + "$" + NCLASSES.incrementAndGet(), CompiledExpr.class.getName(), src);
+      try {
+        ce = (CompiledExpr) clz.newInstance();
+      } catch( InstantiationException | IllegalAccessException e ) {
+        throw new RuntimeException(e);
+      }
+      CACHE.put(body, ce);
+      return ce;
+    }
+  }
+
+  /** Number of classes compiled on this node */
+  public static int compiledCount() { return NCLASSES.get(); }
+
+  /** Number of compiled classes in the cache on this node */
+  public static int cachedCount() { synchronized( CACHE ) { return CACHE.size(); } }
+}
@@ -155,6 +155,7 @@ public class Env extends Iced {
     init(new AstCumMin());
     init(new AstCumProd());
     init(new AstCumSum());
+    init(new AstDistinctCnt());
     init(new AstMad());
     init(new AstMax());
     init(new AstMaxNa());
@@ -281,6 +282,7 @@ public class Env extends Iced {
     // Miscellaneous
     init(new AstComma());
     init(new AstLs());
+    init(new AstPin());
 
     // Search
     init(new AstMatch());
@@ -373,6 +375,13 @@ public class Env extends Iced {
   // ----
   // Variable lookup
 
+  // The built-in primitive an id names, unless a lexically scoped name hides
+  // it.  Does not look in the DKV.
+  AstPrimitive lookupPrim(String id) {
+    if (_scope != null && _scope.lookup(id) != null) return null;
+    return PRIMS.get(id);
+  }
+
   public Val lookup(String id) {
     // Lexically scoped functions first
     Val val = _scope == null ? null : _scope.lookup(id);
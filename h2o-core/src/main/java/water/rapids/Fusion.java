@@ -0,0 +1,409 @@
+package water.rapids;
+
+import water.FusedTask;
+import water.H2O;
+import water.Key;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.rapids.ast.AstExec;
+import water.rapids.ast.AstPrimitive;
+import water.rapids.ast.AstRoot;
+import water.rapids.ast.params.AstId;
+import water.rapids.ast.prims.math.AstUniOp;
+import water.rapids.ast.prims.operators.AstBinOp;
+import water.rapids.ast.prims.reducers.AstNaRollupOp;
+import water.rapids.ast.prims.reducers.AstRollupOp;
+import water.rapids.vals.ValFrame;
+import water.rapids.vals.ValNum;
+import water.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lazy evaluation of elementwise Rapids expressions.  The unary math
+ * functions and the binary operators over numeric Frames do not each make a
+ * temporary Frame; instead the expression is built into a DAG of operators,
+ * which is materialized only where its value is needed - when it is the
+ * result of the whole call, or the argument of a prim that is not elementwise
+ * (including assignments) - and then in one {@link FusedTask} pass.  A
+ * rollup reducer ({@code sum}, {@code min}, {@code max} and their NA-skipping
+ * versions) over such a DAG folds the values within the same pass, so the
+ * elementwise result is never made at all.  E.g. {@code (sum (* (- x y)
+ * (- x y)))} reads x and y once, computes {@code (- x y)} once, and writes no
+ * Frame; eagerly it would make 2 temporary Frames and a third pass.
+ *
+ * The DAG is built from the expression tree before any argument is
+ * evaluated; then the other (non-elementwise) arguments are evaluated, in the
+ * same order as eager execution would.  Operators applied to the same inputs
+ * are merged.  If the arguments turn out not to fit - strings, categoricals,
+ * rows, or Frames of differing layouts - the operators are applied eagerly to
+ * the evaluated arguments instead, with the usual results.
+ */
+public final class Fusion {
+  /** Set to turn lazy evaluation off, running every operator as its own pass */
+  static final boolean DISABLED = Boolean.getBoolean(H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.nofuse");
+  /** Set to interpret the fused operators one Stage each, instead of
+   *  compiling the DAG into a {@link CompiledExpr} */
+  static final boolean INTERPRET = Boolean.getBoolean(H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.nocompile");
+
+  /** Fused passes run on this node, ever */
+  static final AtomicLong PASSES = new AtomicLong();
+
+  private Fusion() {}
+
+  // An operator application, or a leaf expression evaluated as usual
+  private static class Node {
+    final AstRoot _ast;         // Leaf expression
+    final AstPrimitive _op;     // Operator, or null for a leaf
+    final Node[] _kids;
+    Val _val;                   // Leaf value
+    double _d;                  // Value of a scalar node
+    int[] _slots;               // Columns of a Frame node; null for a scalar
+    String[] _names;
+    String _sig;                // Operator and inputs, to merge equal nodes
+    Node(AstRoot ast) { _ast = ast; _op = null; _kids = null; }
+    Node(AstPrimitive op, Node[] kids) { _ast = null; _op = op; _kids = kids; }
+    int nops() {
+      if( _op == null ) return 0;
+      int n = 1;
+      for( Node k : _kids ) n += k.nops();
+      return n;
+    }
+  }
+
+  /**
+   * Execute a function application as one fused pass, if it heads a DAG of
+   * at least 2 operators: elementwise ones, possibly under a rollup reducer.
+   * Called instead of applying the function, before any argument is
+   * evaluated.
+   * @param op the applied function
+   * @return the result, or null if the application is not such a DAG
+   */
+  public static Val exec(Env env, Env.StackHelp stk, AstPrimitive op, AstRoot[] asts) {
+    boolean reducer = op instanceof AstRollupOp && asts.length == 2;
+    if( DISABLED || !(reducer || isElementwise(op)) ) return null;
+    Node[] kids = new Node[asts.length - 1];
+    for( int i = 1; i < asts.length; i++ ) kids[i - 1] = compile(env, asts[i]);
+    Node root = new Node(op, kids);
+    if( root.nops() < 2 || reducer && kids[0]._op == null ) return null;
+    evalLeaves(env, stk, root);
+    ArrayList<Vec> vecs = new ArrayList<>();
+    if( inputs(root, null, vecs, new HashMap<Key, Integer>()) ) {
+      FusedTask ft = new FusedTask(vecs.size());
+      Node top = reducer ? kids[0] : root;
+      if( plan(top, ft, new HashMap<String, Node>()) && top._slots != null ) {
+        if( !INTERPRET ) ft = compiled(top, vecs.size(), ft);
+        Frame fr = new Frame(vecs.toArray(new Vec[vecs.size()]));
+        PASSES.incrementAndGet();
+        if( !reducer ) {
+          Frame res = ft.outputs(top._slots).doAll(top._slots.length, Vec.T_NUM, fr).outputFrame(top._names, null);
+          return new ValFrame(res);
+        }
+        ft.add(new RollupReducer((AstRollupOp) op, top._slots));
+        Val val = ((RollupReducer) ft.doAll(fr).reducers()[0]).result();
+        if( val != null ) return val;
+      }
+    }
+    return eager(env, stk, root);
+  }
+
+  // Match the operator applications in the tree, without evaluating anything
+  private static Node compile(Env env, AstRoot ast) {
+    if( ast instanceof AstExec ) {
+      AstRoot[] asts = ((AstExec) ast)._asts;
+      AstPrimitive op = elementwise(env, asts[0]);
+      if( op != null && op.nargs() == asts.length ) {
+        Node[] kids = new Node[asts.length - 1];
+        for( int i = 1; i < asts.length; i++ ) kids[i - 1] = compile(env, asts[i]);
+        return new Node(op, kids);
+      }
+    }
+    return new Node(ast);
+  }
+
+  private static AstPrimitive elementwise(Env env, AstRoot fun) {
+    AstPrimitive op = null;
+    if( fun instanceof AstPrimitive ) op = (AstPrimitive) fun;
+    else if( fun instanceof AstId ) op = env.lookupPrim(fun.str());
+    return isElementwise(op) ? op : null;
+  }
+
+  private static boolean isElementwise(AstPrimitive op) {
+    return op instanceof AstUniOp || op instanceof AstBinOp && ((AstBinOp) op).fusable();
+  }
+
+  private static void evalLeaves(Env env, Env.StackHelp stk, Node n) {
+    if( n._op == null ) n._val = stk.track(n._ast.exec(env));
+    else for( Node k : n._kids ) evalLeaves(env, stk, k);
+  }
+
+  // Number the columns of the leaves as the input slots, or return false if
+  // a leaf is neither a number nor a numeric Frame of the common layout.  A
+  // number list is taken by its first element only under a binary operator,
+  // as the eager one does; the unary ones reject it.
+  private static boolean inputs(Node n, Node parent, ArrayList<Vec> vecs, HashMap<Key, Integer> slots) {
+    if( n._op != null ) {
+      for( Node k : n._kids )
+        if( !inputs(k, n, vecs, slots) ) return false;
+      return true;
+    }
+    switch( n._val.type() ) {
+      case Val.NUM:  n._d = n._val.getNum();  return true;
+      case Val.NUMS:
+        if( !(parent._op instanceof AstBinOp) ) return false;
+        n._d = n._val.getNums()[0];
+        return true;
+      case Val.FRM:
+        Frame fr = n._val.getFrame();
+        if( fr.numCols() == 0 ) return false;
+        n._slots = new int[fr.numCols()];
+        for( int i = 0; i < n._slots.length; i++ ) {
+          Vec v = fr.vec(i);
+          if( !v.isNumeric() || !vecs.isEmpty() && !vecs.get(0).isCompatibleWith(v) ) return false;
+          Integer s = slots.get(v._key);
+          if( s == null ) { slots.put(v._key, s = vecs.size()); vecs.add(v); }
+          n._slots[i] = s;
+        }
+        n._names = fr.names();
+        return true;
+      default: return false;
+    }
+  }
+
+  // Add a Stage per distinct operator over Frames, folding the operators over
+  // scalars only; or return false if the Frame widths do not match up.  Nodes
+  // of the same operator over the same inputs share the first one's Stage.
+  private static boolean plan(Node n, FusedTask ft, HashMap<String, Node> done) {
+    if( n._op == null ) {
+      n._sig = n._slots == null ? Double.toString(n._d) : Arrays.toString(n._slots);
+      return true;
+    }
+    StringBuilder sig = new StringBuilder("(").append(n._op.str());
+    for( Node k : n._kids ) {
+      if( !plan(k, ft, done) ) return false;
+      sig.append(' ').append(k._sig);
+    }
+    n._sig = sig.append(')').toString();
+    Node same = done.get(n._sig);
+    if( same != null ) { n._d = same._d;  n._slots = same._slots;  n._names = same._names;  return true; }
+    done.put(n._sig, n);
+    if( n._op instanceof AstUniOp ) {
+      AstUniOp op = (AstUniOp) n._op;
+      Node x = n._kids[0];
+      if( x._slots == null ) { n._d = op.op(x._d); return true; }
+      n._names = new String[x._slots.length];
+      for( int i = 0; i < n._names.length; i++ ) n._names[i] = op.colName(x._names[i]);
+      n._slots = slots(ft.add(new UniStage(op, x._slots)), x._slots.length);
+      return true;
+    }
+    AstBinOp op = (AstBinOp) n._op;
+    Node l = n._kids[0], r = n._kids[1];
+    if( l._slots == null && r._slots == null ) { n._d = op.op(l._d, r._d); return true; }
+    int lw = l._slots == null ? 0 : l._slots.length, rw = r._slots == null ? 0 : r._slots.length;
+    // Same widths, or one of width 1 widened to the other; names from the wider
+    if( lw > 0 && rw > 0 && lw != rw && lw != 1 && rw != 1 ) return false;
+    n._names = rw > lw ? r._names : l._names;
+    int[] in = new int[lw + rw];
+    if( lw > 0 ) System.arraycopy(l._slots, 0, in, 0, lw);
+    if( rw > 0 ) System.arraycopy(r._slots, 0, in, lw, rw);
+    int w = Math.max(lw, rw);
+    n._slots = slots(ft.add(new BinStage(op, in, lw, rw, l._d, r._d, w)), w);
+    return true;
+  }
+
+  // A pass of one Stage computing the whole DAG by a compiled loop, with the
+  // same output slots as the planned Stages; or those if compiling fails
+  private static FusedTask compiled(Node top, int ncols, FusedTask planned) {
+    ArrayList<Node> leaves = new ArrayList<>();
+    ArrayList<AstPrimitive> ops = new ArrayList<>();
+    ArrayList<Double> ks = new ArrayList<>();
+    StringBuilder loop = new StringBuilder();
+    String res = emit(top, leaves, ops, ks, loop, new HashMap<String, String>());
+    StringBuilder body = new StringBuilder();
+    for( int j = 0; j < leaves.size(); j++ ) body.append("double[] a").append(j).append(" = in[").append(j).append("];\n");
+    body.append("for( int i = 0; i < len; i++ ) {\n").append(loop);
+    body.append("  out[i] = ").append(res).append(";\n}\n");
+    try {
+      CompiledExpr.get(body.toString()); // Compile here first, to fall back on failure
+    } catch( RuntimeException e ) {
+      Log.warn("Interpreting Rapids expression, failed to compile: " + e);
+      return planned;
+    }
+    int[] leafOff = new int[leaves.size()], leafW = new int[leaves.size()];
+    int nin = 0;
+    for( int j = 0; j < leafW.length; j++ ) { leafOff[j] = nin;  nin += leafW[j] = leaves.get(j)._slots.length; }
+    int[] in = new int[nin];
+    for( int j = 0; j < leafW.length; j++ ) System.arraycopy(leaves.get(j)._slots, 0, in, leafOff[j], leafW[j]);
+    double[] k = new double[ks.size()];
+    for( int i = 0; i < k.length; i++ ) k[i] = ks.get(i);
+    FusedTask ft = new FusedTask(ncols);
+    int first = ft.add(new CompiledStage(body.toString(), in, leafOff, leafW, k, ops.toArray(new AstPrimitive[ops.size()]), top._slots.length));
+    top._slots = slots(first, top._slots.length);
+    return ft;
+  }
+
+  // Append the loop statements computing a node, once per distinct node;
+  // return the expression for its value
+  private static String emit(Node n, ArrayList<Node> leaves, ArrayList<AstPrimitive> ops, ArrayList<Double> ks,
+                             StringBuilder loop, HashMap<String, String> vars) {
+    String v = vars.get(n._sig);
+    if( v != null ) return v;
+    if( n._slots == null ) {    // Scalar, maybe folded from operators
+      v = "k[" + ks.size() + "]";
+      ks.add(n._d);
+    } else if( n._op == null ) {
+      v = "a" + leaves.size() + "[i]";
+      leaves.add(n);
+    } else {
+      StringBuilder args = new StringBuilder();
+      for( Node kid : n._kids )
+        args.append(args.length() == 0 ? "" : ", ").append(emit(kid, leaves, ops, ks, loop, vars));
+      String clz = n._op.getClass().getName();
+      if( clz.indexOf('$') >= 0 ) clz = (n._op instanceof AstUniOp ? AstUniOp.class : AstBinOp.class).getName();
+      v = "t" + ops.size();
+      loop.append("  double ").append(v).append(" = ((").append(clz).append(") ops[").append(ops.size()).append("]).op(").append(args).append(");\n");
+      ops.add(n._op);
+    }
+    vars.put(n._sig, v);
+    return v;
+  }
+
+  private static int[] slots(int first, int n) {
+    int[] ss = new int[n];
+    for( int i = 0; i < n; i++ ) ss[i] = first + i;
+    return ss;
+  }
+
+  // Apply the operators one at a time, as unfused execution would have
+  private static Val eager(Env env, Env.StackHelp stk, Node n) {
+    Val[] args = new Val[n._kids.length + 1];
+    for( int i = 0; i < n._kids.length; i++ ) {
+      Node k = n._kids[i];
+      args[i + 1] = k._op == null ? k._val : stk.track(env.returning(eager(env, stk, k)));
+    }
+    if( n._op instanceof AstUniOp ) return ((AstUniOp) n._op).exec(args);
+    if( n._op instanceof AstBinOp ) return ((AstBinOp) n._op).prim_apply(args[1], args[2]);
+    return n._op.apply(env, stk, new AstRoot[]{null, new AstVal(args[1])});
+  }
+
+  // An already evaluated argument
+  private static class AstVal extends AstRoot<AstVal> {
+    final Val _v;
+    AstVal(Val v) { _v = v; }
+    @Override public String str() { return _v.toString(); }
+    @Override public String example() { return null; }
+    @Override public String description() { return null; }
+    @Override public Val exec(Env env) { return env.returning(_v); }
+  }
+
+  private static class UniStage extends FusedTask.Stage {
+    final AstUniOp _op;
+    UniStage(AstUniOp op, int[] in) { super(in, in.length); _op = op; }
+    @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+      for( int c = 0; c < cs.length; c++ )
+        for( int i = 0; i < cs[c]._len; i++ )
+          ncs[c].addNum(_op.op(cs[c].atd(i)));
+    }
+  }
+
+  // Reads lw left and rw right columns; a width of 0 is the scalar, and a
+  // width of 1 is widened to all outputs
+  private static class BinStage extends FusedTask.Stage {
+    final AstBinOp _op;
+    final int _lw, _rw;
+    final double _ld, _rd;
+    BinStage(AstBinOp op, int[] in, int lw, int rw, double ld, double rd, int nout) {
+      super(in, nout);
+      _op = op;  _lw = lw;  _rw = rw;  _ld = ld;  _rd = rd;
+    }
+    @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+      for( int c = 0; c < ncs.length; c++ ) {
+        Chunk l = _lw == 0 ? null : cs[_lw == 1 ? 0 : c];
+        Chunk r = _rw == 0 ? null : cs[_lw + (_rw == 1 ? 0 : c)];
+        int len = (l == null ? r : l)._len;
+        for( int i = 0; i < len; i++ )
+          ncs[c].addNum(_op.op(l == null ? _ld : l.atd(i), r == null ? _rd : r.atd(i)));
+      }
+    }
+  }
+
+  // Computes the DAG for each output column at once; leaf j is read from
+  // column c of its leafW[j] columns, or from its only column
+  private static class CompiledStage extends FusedTask.Stage {
+    final String _body;         // Loop body: the shape of the expression
+    final int[] _leafOff, _leafW;
+    final double[] _k;
+    final AstPrimitive[] _ops;
+    transient CompiledExpr _ce; // Compiled on first use, on each node
+    CompiledStage(String body, int[] in, int[] leafOff, int[] leafW, double[] k, AstPrimitive[] ops, int nout) {
+      super(in, nout);
+      _body = body;  _leafOff = leafOff;  _leafW = leafW;  _k = k;  _ops = ops;
+    }
+    @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+      if( _ce == null ) _ce = CompiledExpr.get(_body);
+      int len = cs[0]._len;
+      double[][] in = new double[_leafW.length][len];
+      double[] out = new double[len];
+      for( int c = 0; c < ncs.length; c++ ) {
+        for( int j = 0; j < in.length; j++ )
+          if( c == 0 || _leafW[j] > 1 )
+            cs[_leafOff[j] + (_leafW[j] == 1 ? 0 : c)].getDoubles(in[j], 0, len);
+        _ce.eval(in, _k, _ops, out, len);
+        for( int i = 0; i < len; i++ ) ncs[c].addNum(out[i]);
+      }
+    }
+  }
+
+  // Folds each column with the rollup op over its non-NA values, as the
+  // rollups of the materialized columns would
+  private static class RollupReducer extends FusedTask.Reducer {
+    final AstRollupOp _op;
+    double[] _acc;              // Per column: fold of the values
+    long[] _nobs, _nas;         // Per column: count of values, of NAs
+    boolean _inf;               // Saw an infinity
+    RollupReducer(AstRollupOp op, int[] in) { super(in); _op = op; }
+    @Override public void map(Chunk[] cs) {
+      _acc = new double[cs.length];
+      _nobs = new long[cs.length];
+      _nas = new long[cs.length];
+      for( int c = 0; c < cs.length; c++ )
+        for( int i = 0; i < cs[c]._len; i++ ) {
+          double d = cs[c].atd(i);
+          if( Double.isNaN(d) ) { _nas[c]++; continue; }
+          if( Double.isInfinite(d) ) _inf = true;
+          _acc[c] = _nobs[c]++ == 0 ? d : _op.op(_acc[c], d);
+        }
+    }
+    @Override public void reduce(FusedTask.Reducer red) {
+      RollupReducer r = (RollupReducer) red;
+      if( r._acc == null ) return;
+      for( int c = 0; c < _acc.length; c++ ) {
+        if( r._nobs[c] > 0 ) _acc[c] = _nobs[c] == 0 ? r._acc[c] : _op.op(_acc[c], r._acc[c]);
+        _nobs[c] += r._nobs[c];
+        _nas[c] += r._nas[c];
+      }
+      _inf |= r._inf;
+    }
+    // The reduction; an NA makes NA unless the op skips them.  Null for the
+    // corner cases where the rollups are not a plain fold - infinities, or
+    // columns without values.
+    Val result() {
+      if( _acc == null ) return null;
+      if( !(_op instanceof AstNaRollupOp) )
+        for( long n : _nas )
+          if( n > 0 ) return new ValNum(Double.NaN);
+      if( _inf ) return null;
+      double d = 0;
+      for( int c = 0; c < _acc.length; c++ ) {
+        if( _nobs[c] == 0 ) return null;
+        d = c == 0 ? _acc[c] : _op.op(d, _acc[c]);
+      }
+      return new ValNum(d);
+    }
+  }
+}
@@ -60,7 +60,8 @@ public class AstExec extends AstRoot {
       throw new IllegalArgumentException(
           "Incorrect number of arguments; '" + ast + "' expects " + (nargs - 1) + " but was passed " + (_asts.length - 1));
     try (Env.StackHelp stk = env.stk()) {
-      return env.returning(ast.apply(env, stk, _asts));
+      Val fused = Fusion.exec(env, stk, ast, _asts); // Chains of elementwise ops run as one pass
+      return env.returning(fused != null ? fused : ast.apply(env, stk, _asts));
     }
   }
 
@@ -15,17 +15,22 @@ import water.rapids.ast.params.AstNumList;
 
 /**
  * Quantiles:
- * (quantile %frame [numnber_list_probs] "string_interpolation_type")
+ * (quantile %frame [numnber_list_probs] "string_interpolation_type" weights_column)
+ * (quantile %frame [numnber_list_probs] "string_interpolation_type" weights_column sketch_error)
+ * <p/>
+ * A positive sketch_error computes the quantiles of all columns in one pass,
+ * with a {@link hex.quantile.QuantileSketch}.
  */
 public class AstQtile extends AstPrimitive {
   @Override
   public String[] args() {
-    return new String[]{"ary", "probs", "interpolationMethod", "weights_column"};
+    return new String[]{"ary", "probs", "interpolationMethod", "weights_column", "sketch_error"};
   }
 
+  // (quantile ary probs method weights) or (quantile ary probs method weights sketch_error)
   @Override
   public int nargs() {
-    return 1 + 4;
+    return -1;
   }
 
   @Override
@@ -35,6 +40,8 @@ public class AstQtile extends AstPrimitive {
 
   @Override
   public ValFrame apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
+    if (asts.length != 5 && asts.length != 6)
+      throw new IllegalArgumentException("quantile expects 4 or 5 arguments, but found " + (asts.length - 1));
     QuantileModel.QuantileParameters parms = new QuantileModel.QuantileParameters();
     Frame fr = stk.track(asts[1].exec(env)).getFrame();
     Frame fr_wkey = new Frame(fr); // Force a bogus Key for Quantiles ModelBuilder
@@ -48,6 +55,7 @@ public class AstQtile extends AstPrimitive {
     String inter = asts[3].exec(env).getStr();
     parms._combine_method = QuantileModel.CombineMethod.valueOf(inter.toUpperCase());
     parms._weights_column = asts[4].str().equals("_") ? null : asts[4].str();
+    if (asts.length == 6) parms._sketch_error = asts[5].exec(env).getNum();
 
     // Compute Quantiles
     Job j = new Quantile(parms).trainModel();
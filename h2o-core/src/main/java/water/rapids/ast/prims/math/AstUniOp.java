@@ -44,7 +44,7 @@ public abstract class AstUniOp<T extends AstUniOp<T>> extends AstBuiltin<T> {
         // a log transformation would now be changed to `log(income)`.
         String[] newNames = new String[fr.numCols()];
         for (int i = 0; i < newNames.length; i++) {
-          newNames[i] = str() + "(" + fr.name(i) + ")";
+          newNames[i] = colName(fr.name(i));
         }
         return new ValFrame(new MRTask() {
           @Override
@@ -71,6 +71,13 @@ public abstract class AstUniOp<T extends AstUniOp<T>> extends AstBuiltin<T> {
   }
 
   public abstract double op(double d);
+
+  /**
+   * Name of the result column for an argument column.
+   */
+  public String colName(String name) {
+    return str() + "(" + name + ")";
+  }
 }
 
 
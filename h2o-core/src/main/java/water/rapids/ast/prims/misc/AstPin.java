@@ -0,0 +1,47 @@
+package water.rapids.ast.prims.misc;
+
+import water.EvictionPolicy;
+import water.fvec.Frame;
+import water.rapids.Env;
+import water.rapids.vals.ValFrame;
+import water.rapids.ast.AstPrimitive;
+import water.rapids.ast.AstRoot;
+
+/**
+ * Pin a frame in memory on all nodes, or unpin it.  Chunks of a pinned frame
+ * are never swapped to disk nor evicted by the memory cleaner.
+ */
+public class AstPin extends AstPrimitive {
+  @Override
+  public String[] args() {
+    return new String[]{"ary", "pin"};
+  }
+
+  @Override
+  public int nargs() {
+    return 1 + 2;
+  } // (pin ary pin)
+
+  @Override
+  public String str() {
+    return "pin";
+  }
+
+  @Override
+  public String example() {
+    return "(pin frame TRUE)";
+  }
+
+  @Override
+  public String description() {
+    return "Pin the frame in memory on all nodes (pin=TRUE), or release a previous pin (pin=FALSE).";
+  }
+
+  @Override
+  public ValFrame apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
+    Frame fr = stk.track(asts[1].exec(env)).getFrame();
+    boolean pin = asts[2].exec(env).getNum() == 1;
+    EvictionPolicy.pin(fr, pin);
+    return new ValFrame(fr);
+  }
+}
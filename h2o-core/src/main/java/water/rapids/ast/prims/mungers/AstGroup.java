@@ -34,89 +34,69 @@ import java.util.Arrays;
  * The returned column(s).
  */
 public class AstGroup extends AstPrimitive {
+  /** Set to group by the generic {@link GBTask} only, not by {@link HashGBTask} */
+  static final boolean GENERIC = Boolean.getBoolean(H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.gb.generic");
+
   public enum NAHandling {ALL, RM, IGNORE}
 
-  // Functions handled by GroupBy
+  // Functions handled by GroupBy.  The reduction state of a group is the
+  // initVal().length doubles starting at an offset into an array, so the
+  // states of many groups can share one array.
   public enum FCN {
     nrow() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0]++;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off]++;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        d0s[0] += d1s[0];
-      }
-
-      @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
     },
     mean() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        d0s[0] += d1s[0];
-      }
-
-      @Override
-      public double postPass(double ds[], long n) {
-        return ds[0] / n;
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off] / n;
       }
     },
     sum() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        d0s[0] += d1s[0];
-      }
-
-      @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
     },
     sumSquares() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1 * d1;
-      }
-
-      @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        d0s[0] += d1s[0];
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1 * d1;
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
     },
     var() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1 * d1;
-        d0s[1] += d1;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1 * d1;
+        d0s[off + 1] += d1;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        ArrayUtils.add(d0s, d1s);
-      }
-
-      @Override
-      public double postPass(double ds[], long n) {
-        double numerator = ds[0] - ds[1] * ds[1] / n;
+      public double postPass(double ds[], int off, int len, long n) {
+        double numerator = ds[off] - ds[off + 1] * ds[off + 1] / n;
         if (Math.abs(numerator) < 1e-5) numerator = 0;
         return numerator / (n - 1);
       }
@@ -128,19 +108,14 @@ public class AstGroup extends AstPrimitive {
     },
     sdev() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1 * d1;
-        d0s[1] += d1;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1 * d1;
+        d0s[off + 1] += d1;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        ArrayUtils.add(d0s, d1s);
-      }
-
-      @Override
-      public double postPass(double ds[], long n) {
-        double numerator = ds[0] - ds[1] * ds[1] / n;
+      public double postPass(double ds[], int off, int len, long n) {
+        double numerator = ds[off] - ds[off + 1] * ds[off + 1] / n;
         if (Math.abs(numerator) < 1e-5) numerator = 0;
         return Math.sqrt(numerator / (n - 1));
       }
@@ -152,18 +127,18 @@ public class AstGroup extends AstPrimitive {
     },
     min() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] = Math.min(d0s[0], d1);
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] = Math.min(d0s[off], d1);
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        op(d0s, d1s[0]);
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        op(d0s, off0, d1s[off1]);
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
 
       @Override
@@ -173,18 +148,18 @@ public class AstGroup extends AstPrimitive {
     },
     max() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] = Math.max(d0s[0], d1);
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] = Math.max(d0s[off], d1);
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        op(d0s, d1s[0]);
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        op(d0s, off0, d1s[off1]);
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
 
       @Override
@@ -194,18 +169,16 @@ public class AstGroup extends AstPrimitive {
     },
     mode() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[(int) d1]++;
-      }
-
-      @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        ArrayUtils.add(d0s, d1s);
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off + (int) d1]++;
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ArrayUtils.maxIndex(ds);
+      public double postPass(double ds[], int off, int len, long n) {
+        int idx = 0;            // First most frequent level
+        for (int i = 1; i < len; i++)
+          if (ds[off + i] > ds[off + idx]) idx = i;
+        return idx;
       }
 
       @Override
@@ -214,11 +187,17 @@ public class AstGroup extends AstPrimitive {
       }
     },;
 
-    public abstract void op(double[] d0, double d1);
+    // Fold d1 into the state at d0s[off]
+    public abstract void op(double[] d0s, int off, double d1);
 
-    public abstract void atomic_op(double[] d0, double[] d1);
+    // Fold the len-long state at d1s[off1] into the state at d0s[off0];
+    // adds them up unless overridden
+    public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+      for (int i = 0; i < len; i++) d0s[off0 + i] += d1s[off1 + i];
+    }
 
-    public abstract double postPass(double ds[], long n);
+    // The result from the len-long state at ds[off], of n rows
+    public abstract double postPass(double ds[], int off, int len, long n);
 
     public double[] initVal(int maxx) {
       return new double[]{0};
@@ -265,6 +244,38 @@ public class AstGroup extends AstPrimitive {
       aggs[(idx - 3) / 3] = new AGG(fcn, agg_col, na, (int) fr.vec(agg_col).max() + 1);
     }
 
+    // Build the output!
+    String[] fcnames = new String[aggs.length];
+    for (int i = 0; i < aggs.length; i++) {
+      if(aggs[i]._fcn.toString() != "nrow") {
+        fcnames[i] = aggs[i]._fcn.toString() + "_" + fr.name(aggs[i]._col);
+      }else{
+        fcnames[i] = aggs[i]._fcn.toString();
+      }
+    }
+
+    if (hashable(fr, gbCols)) {
+      if (ExternalGroupBy.wanted(fr, gbCols, aggs))
+        return new ValFrame(ExternalGroupBy.groupBy(fr, gbCols, aggs, fcnames));
+      final GTable gt = doHashGroups(fr, gbCols, aggs);
+      final int[] order = gbCols.length > 0 ? gt.order() : ArrayUtils.seq(0, gt._ngrps);
+      MRTask mrfill = new MRTask() {
+        @Override
+        public void map(Chunk[] c, NewChunk[] ncs) {
+          int start = (int) c[0].start();
+          for (int i = 0; i < c[0]._len; ++i) {
+            int g = order[i + start]; // One Group per row
+            int j;
+            for (j = 0; j < gt._nk; j++) // The Group Key, as a row
+              ncs[j].addNum(gt.key(g, j));
+            for (int a = 0; a < aggs.length; a++)
+              ncs[j++].addNum(gt.result(g, a));
+          }
+        }
+      };
+      return new ValFrame(buildOutput(gbCols, naggs, fr, fcnames, gt._ngrps, mrfill));
+    }
+
     // do the group by work now
     IcedHashMap<G, String> gss = doGroups(fr, gbCols, aggs);
     final G[] grps = gss.keySet().toArray(new G[gss.size()]);
@@ -292,16 +303,6 @@ public class AstGroup extends AstPrimitive {
         }
       });
 
-    // Build the output!
-    String[] fcnames = new String[aggs.length];
-    for (int i = 0; i < aggs.length; i++) {
-      if(aggs[i]._fcn.toString() != "nrow") {
-        fcnames[i] = aggs[i]._fcn.toString() + "_" + fr.name(aggs[i]._col);
-      }else{
-        fcnames[i] = aggs[i]._fcn.toString();
-      }
-    }
-
     MRTask mrfill = new MRTask() {
       @Override
       public void map(Chunk[] c, NewChunk[] ncs) {
@@ -312,7 +313,7 @@ public class AstGroup extends AstPrimitive {
           for (j = 0; j < g._gs.length; j++) // The Group Key, as a row
             ncs[j].addNum(g._gs[j]);
           for (int a = 0; a < aggs.length; a++)
-            ncs[j++].addNum(aggs[a]._fcn.postPass(g._dss[a], g._ns[a]));
+            ncs[j++].addNum(aggs[a]._fcn.postPass(g._dss[a], 0, g._dss[a].length, g._ns[a]));
         }
       }
     };
@@ -346,6 +347,23 @@ public class AstGroup extends AstPrimitive {
     return p1._gss;
   }
 
+  // True if the group-by columns can be keyed by their double values in a
+  // GTable: all but Strings and UUIDs
+  static boolean hashable(Frame fr, int[] gbCols) {
+    if (GENERIC) return false;
+    for (int c : gbCols)
+      if (fr.vec(c).isString() || fr.vec(c).isUUID()) return false;
+    return true;
+  }
+
+  // Same as doGroups, but into the columnar GTable
+  public static GTable doHashGroups(Frame fr, int[] gbCols, AGG[] aggs) {
+    long start = System.currentTimeMillis();
+    HashGBTask p1 = new HashGBTask(gbCols, aggs).doAll(fr);
+    Log.info("Group By Task done in " + (System.currentTimeMillis() - start) / 1000. + " (s)");
+    return p1._gt == null ? new GTable(gbCols.length, aggs) : p1._gt;
+  }
+
   // Utility for AstDdply; return a single aggregate for counting rows-per-group
   public static AGG[] aggNRows() {
     return new AGG[]{new AGG(FCN.nrow, 0, NAHandling.IGNORE, 0)};
@@ -354,24 +372,32 @@ public class AstGroup extends AstPrimitive {
   // Build output frame from the multi-column results
   public static Frame buildOutput(int[] gbCols, int noutCols, Frame fr, String[] fcnames, int ngrps, MRTask mrfill) {
     // Build the output!
-    // the names of columns
     final int nCols = gbCols.length + noutCols;
-    String[] names = new String[nCols];
-    String[][] domains = new String[nCols][];
-    for (int i = 0; i < gbCols.length; i++) {
-      names[i] = fr.name(gbCols[i]);
-      domains[i] = fr.domains()[gbCols[i]];
-    }
-    for (int i = 0; i < fcnames.length; i++)
-      names[i + gbCols.length] = fcnames[i];
     Vec v = Vec.makeZero(ngrps); // dummy layout vec
 
     // Convert the output arrays into a Frame, also doing the post-pass work
-    Frame f = mrfill.doAll(nCols, Vec.T_NUM, new Frame(v)).outputFrame(names, domains);
+    Frame f = mrfill.doAll(nCols, Vec.T_NUM, new Frame(v)).outputFrame(outputNames(gbCols, fr, fcnames), outputDomains(gbCols, fr, nCols));
     v.remove();
     return f;
   }
 
+  // The names of the output columns: the group-by columns, then the aggregates
+  static String[] outputNames(int[] gbCols, Frame fr, String[] fcnames) {
+    String[] names = new String[gbCols.length + fcnames.length];
+    for (int i = 0; i < gbCols.length; i++)
+      names[i] = fr.name(gbCols[i]);
+    for (int i = 0; i < fcnames.length; i++)
+      names[i + gbCols.length] = fcnames[i];
+    return names;
+  }
+
+  static String[][] outputDomains(int[] gbCols, Frame fr, int nCols) {
+    String[][] domains = new String[nCols][];
+    for (int i = 0; i < gbCols.length; i++)
+      domains[i] = fr.domains()[gbCols[i]];
+    return domains;
+  }
+
 
   // Description of a single aggregate, including the reduction function, the
   // column and specified NA handling
@@ -393,7 +419,7 @@ public class AstGroup extends AstPrimitive {
     // ns is the element count
     public void op(double[][] d0ss, long[] n0s, int i, double d1) {
       // Normal number or ALL   : call op()
-      if (!Double.isNaN(d1) || _na == NAHandling.ALL) _fcn.op(d0ss[i], d1);
+      if (!Double.isNaN(d1) || _na == NAHandling.ALL) _fcn.op(d0ss[i], 0, d1);
       // Normal number or IGNORE: bump count; RM: do not bump count
       if (!Double.isNaN(d1) || _na == NAHandling.IGNORE) n0s[i]++;
     }
@@ -402,11 +428,18 @@ public class AstGroup extends AstPrimitive {
     // Same as op() above, but called racily and updates atomically.
     public void atomic_op(double[][] d0ss, long[] n0s, int i, double[] d1s, long n1) {
       synchronized (d0ss[i]) {
-        _fcn.atomic_op(d0ss[i], d1s);
+        _fcn.atomic_op(d0ss[i], 0, d1s, 0, d1s.length);
         n0s[i] += n1;
       }
     }
 
+    // Update the state of group g in the columnar arrays {ds,ns} with d1; each
+    // group has w doubles of ds
+    void op(double[] ds, long[] ns, int g, int w, double d1) {
+      if (!Double.isNaN(d1) || _na == NAHandling.ALL) _fcn.op(ds, g * w, d1);
+      if (!Double.isNaN(d1) || _na == NAHandling.IGNORE) ns[g]++;
+    }
+
     public double[] initVal() {
       return _fcn.initVal(_maxx);
     }
@@ -419,20 +452,28 @@ public class AstGroup extends AstPrimitive {
     final IcedHashMap<G, String> _gss; // Shared per-node, common, racy
     private final int[] _gbCols; // Columns used to define group
     private final AGG[] _aggs;   // Aggregate descriptions
+    private final int[] _cols;   // Columns read: group and aggregate columns
 
     GBTask(int[] gbCols, AGG[] aggs) {
       _gbCols = gbCols;
       _aggs = aggs;
       _gss = new IcedHashMap<>();
+      _cols = Arrays.copyOf(gbCols, gbCols.length + aggs.length);
+      for (int i = 0; i < aggs.length; i++) _cols[gbCols.length + i] = aggs[i]._col;
     }
 
+    // Only load the group and aggregate columns of a wide frame
+    @Override
+    protected int[] readColumns() { return _cols.length == 0 ? null : _cols; }
+
     @Override
     public void map(Chunk[] cs) {
       // Groups found in this Chunk
       IcedHashMap<G, String> gs = new IcedHashMap<>();
       G gWork = new G(_gbCols.length, _aggs); // Working Group
       G gOld;                   // Existing Group to be filled in
-      for (int row = 0; row < cs[0]._len; row++) {
+      int len = cs[_cols.length == 0 ? 0 : _cols[0]]._len;
+      for (int row = 0; row < len; row++) {
         // Find the Group being worked on
         gWork.fill(row, cs, _gbCols);            // Fill the worker Group for the hashtable lookup
         if (gs.putIfAbsent(gWork, "") == null) { // Insert if not absent (note: no race, no need for atomic)
@@ -466,6 +507,218 @@ public class AstGroup extends AstPrimitive {
     }
   }
 
+  // --------------------------------------------------------------------------
+  // Group-by into a GTable: the groups of a chunk are found row by row, then
+  // each aggregate is folded column by column.  Tables are per thread, merged
+  // smaller into larger on reduce.
+  public static class HashGBTask extends MRTask<HashGBTask> {
+    GTable _gt;
+    private final int[] _gbCols; // Columns used to define group
+    private final AGG[] _aggs;   // Aggregate descriptions
+    private final int[] _cols;   // Columns read: group and aggregate columns
+
+    HashGBTask(int[] gbCols, AGG[] aggs) {
+      _gbCols = gbCols;
+      _aggs = aggs;
+      _cols = Arrays.copyOf(gbCols, gbCols.length + aggs.length);
+      for (int i = 0; i < aggs.length; i++) _cols[gbCols.length + i] = aggs[i]._col;
+    }
+
+    @Override
+    protected boolean accumulateByThread() { return true; }
+
+    @Override
+    protected int[] readColumns() { return _cols.length == 0 ? null : _cols; }
+
+    @Override
+    public void map(Chunk[] cs) {
+      if (_gt == null) _gt = new GTable(_gbCols.length, _aggs);
+      int len = cs[_cols.length == 0 ? 0 : _cols[0]]._len;
+      double[][] keys = new double[_gbCols.length][];
+      for (int c = 0; c < keys.length; c++) keys[c] = cs[_gbCols[c]].getDoubles(new double[len], 0, len);
+      int[] gs = new int[len];  // Group of each row
+      long[] kw = new long[keys.length];
+      for (int row = 0; row < len; row++) {
+        for (int c = 0; c < kw.length; c++) kw[c] = Double.doubleToLongBits(keys[c][row]);
+        gs[row] = _gt.group(kw, 0);
+      }
+      double[] vals = new double[len];
+      for (int a = 0; a < _aggs.length; a++) {
+        cs[_aggs[a]._col].getDoubles(vals, 0, len);
+        double[] ds = _gt._dss[a];
+        long[] ns = _gt._ns[a];
+        int w = _gt._ws[a];
+        for (int row = 0; row < len; row++)
+          _aggs[a].op(ds, ns, gs[row], w, vals[row]);
+      }
+    }
+
+    @Override
+    public void reduce(HashGBTask t) {
+      GTable small = t._gt;
+      if (small == null) return;
+      if (_gt == null || _gt._ngrps < small._ngrps) { small = _gt; _gt = t._gt; }
+      if (small != null) _gt.merge(small);
+    }
+  }
+
+  // Groups in columnar form, found by open addressing on their packed keys.
+  // Group g has the key _keys[g*_nk ...], as the bits of the key doubles, and
+  // the aggregate states _dss[a][g*_ws[a] ...] with row counts _ns[a][g].
+  // There are no per-group objects, and a table moves between nodes as a few
+  // primitive arrays.
+  public static class GTable extends Iced<GTable> {
+    public final int _nk;       // Key columns
+    final AGG[] _aggs;
+    final int[] _ws;            // Doubles of state per group, per aggregate
+    public int _ngrps;          // Groups found
+    int _cap;                   // Groups with room in the arrays
+    long[] _keys;
+    double[][] _dss;
+    long[][] _ns;
+    transient int[] _slots;     // Hash table: group+1 per slot, or 0 if free
+    transient double[][] _inits; // Initial state per aggregate, or null for zeros
+
+    GTable(int nk, AGG[] aggs) {
+      _nk = nk;
+      _aggs = aggs;
+      _ws = new int[aggs.length];
+      for (int a = 0; a < aggs.length; a++) _ws[a] = aggs[a].initVal().length;
+      _cap = 16;
+      _keys = new long[_cap * nk];
+      _dss = new double[aggs.length][];
+      _ns = new long[aggs.length][_cap];
+      for (int a = 0; a < aggs.length; a++) _dss[a] = new double[_cap * _ws[a]];
+    }
+
+    public double key(int g, int c) { return Double.longBitsToDouble(_keys[g * _nk + c]); }
+
+    public double result(int g, int a) {
+      return _aggs[a]._fcn.postPass(_dss[a], g * _ws[a], _ws[a], _ns[a][g]);
+    }
+
+    // The group of the key at kw[off ...], added if new
+    int group(long[] kw, int off) {
+      if (_slots == null) rehash(_cap * 2);
+      int mask = _slots.length - 1;
+      for (int i = hash(kw, off) & mask; ; i = (i + 1) & mask) {
+        int g = _slots[i] - 1;
+        if (g < 0) {
+          g = add(kw, off);
+          _slots[i] = g + 1;
+          if (2 * _ngrps > _slots.length) rehash(_slots.length * 2);
+          return g;
+        }
+        if (sameKey(g, kw, off)) return g;
+      }
+    }
+
+    private boolean sameKey(int g, long[] kw, int off) {
+      for (int c = 0; c < _nk; c++)
+        if (_keys[g * _nk + c] != kw[off + c]) return false;
+      return true;
+    }
+
+    private int hash(long[] kw, int off) { return hash(kw, off, _nk); }
+
+    // Hash of the nk-long key at kw[off ...]; all 32 bits are well mixed
+    static int hash(long[] kw, int off, int nk) {
+      long h = 0;
+      for (int c = 0; c < nk; c++) h = (h + kw[off + c]) * 0x9E3779B97F4A7C15L;
+      // Doubles of small integers differ in their high bits only; mix them down
+      h ^= h >>> 33;
+      h *= 0xFF51AFD7ED558CCDL;
+      return (int) (h ^ (h >>> 33));
+    }
+
+    private void rehash(int nslots) {
+      int n = 16;
+      while (n < nslots) n <<= 1;
+      _slots = new int[n];
+      for (int g = 0; g < _ngrps; g++) {
+        int i = hash(_keys, g * _nk) & (n - 1);
+        while (_slots[i] != 0) i = (i + 1) & (n - 1);
+        _slots[i] = g + 1;
+      }
+    }
+
+    private int add(long[] kw, int off) {
+      if (_ngrps == _cap) grow();
+      int g = _ngrps++;
+      System.arraycopy(kw, off, _keys, g * _nk, _nk);
+      if (_inits == null) {
+        _inits = new double[_aggs.length][];
+        for (int a = 0; a < _aggs.length; a++) {
+          double[] iv = _aggs[a].initVal();
+          for (double d : iv) if (d != 0) { _inits[a] = iv; break; }
+        }
+      }
+      for (int a = 0; a < _aggs.length; a++)
+        if (_inits[a] != null) System.arraycopy(_inits[a], 0, _dss[a], g * _ws[a], _ws[a]);
+      return g;
+    }
+
+    private void grow() {
+      int maxw = _nk;
+      for (int w : _ws) maxw = Math.max(maxw, w);
+      if ((long) _cap * 2 * maxw >= Integer.MAX_VALUE - 8)
+        throw new IllegalArgumentException("Too many groups: " + _ngrps);
+      _cap *= 2;
+      _keys = Arrays.copyOf(_keys, _cap * _nk);
+      for (int a = 0; a < _aggs.length; a++) {
+        _dss[a] = Arrays.copyOf(_dss[a], _cap * _ws[a]);
+        _ns[a] = Arrays.copyOf(_ns[a], _cap);
+      }
+    }
+
+    // Fold the groups of another table into this one
+    void merge(GTable t) {
+      for (int tg = 0; tg < t._ngrps; tg++) {
+        int g = group(t._keys, tg * _nk);
+        for (int a = 0; a < _aggs.length; a++) {
+          int w = _ws[a];
+          _aggs[a]._fcn.atomic_op(_dss[a], g * w, t._dss[a], tg * w, w);
+          _ns[a][g] += t._ns[a][tg];
+        }
+      }
+    }
+
+    // Groups in order of their keys, column by column; NaN is least
+    int[] order() {
+      int[] idxs = ArrayUtils.seq(0, _ngrps);
+      sort(idxs, new int[_ngrps], 0, _ngrps);
+      return idxs;
+    }
+
+    // Merge sort of idxs[lo,hi), on the primitive indices
+    private void sort(int[] idxs, int[] tmp, int lo, int hi) {
+      if (hi - lo < 16) {
+        for (int i = lo + 1; i < hi; i++)
+          for (int j = i; j > lo && compare(idxs[j - 1], idxs[j]) > 0; j--) {
+            int x = idxs[j]; idxs[j] = idxs[j - 1]; idxs[j - 1] = x;
+          }
+        return;
+      }
+      int mid = (lo + hi) >>> 1;
+      sort(idxs, tmp, lo, mid);
+      sort(idxs, tmp, mid, hi);
+      if (compare(idxs[mid - 1], idxs[mid]) <= 0) return;
+      System.arraycopy(idxs, lo, tmp, lo, hi - lo);
+      for (int i = lo, j = mid, k = lo; k < hi; k++)
+        idxs[k] = j >= hi || i < mid && compare(tmp[i], tmp[j]) <= 0 ? tmp[i++] : tmp[j++];
+    }
+
+    private int compare(int g1, int g2) {
+      for (int c = 0; c < _nk; c++) {
+        double d1 = key(g1, c), d2 = key(g2, c);
+        if (Double.isNaN(d1) || Double.isNaN(d2)) {
+          if (Double.isNaN(d1) != Double.isNaN(d2)) return Double.isNaN(d1) ? -1 : 1;
+        } else if (d1 != d2) return d1 < d2 ? -1 : 1;
+      }
+      return 0;
+    }
+  }
+
   // Groups!  Contains a Group Key - an array of doubles (often just 1 entry
   // long) that defines the Group.  Also contains an array of doubles for the
   // aggregate results, one per aggregate.
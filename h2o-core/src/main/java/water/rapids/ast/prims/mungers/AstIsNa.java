@@ -7,16 +7,16 @@ import water.fvec.Frame;
 import water.fvec.NewChunk;
 import water.fvec.Vec;
 import water.rapids.Val;
-import water.rapids.ast.AstBuiltin;
+import water.rapids.ast.prims.math.AstUniOp;
 import water.rapids.vals.ValFrame;
 import water.rapids.vals.ValNum;
 
 /**
- * Split out in it's own function, instead of Yet Another UniOp, because it
- * needs a "is.NA" check instead of just using the Double.isNaN hack... because
- * it works on UUID and String columns.
+ * A UniOp over numbers, so it fuses with the elementwise ops around it; but
+ * with its own exec, because it needs a "is.NA" check instead of just using
+ * the Double.isNaN hack... because it works on UUID and String columns.
  */
-public class AstIsNa extends AstBuiltin<AstIsNa> {
+public class AstIsNa extends AstUniOp<AstIsNa> {
   @Override
   public String[] args() {
     return new String[]{"ary"};
@@ -43,7 +43,7 @@ public class AstIsNa extends AstBuiltin<AstIsNa> {
         Frame fr = val.getFrame();
         String[] newNames = new String[fr.numCols()];
         for (int i = 0; i < newNames.length; i++) {
-          newNames[i] = "isNA(" + fr.name(i) + ")";
+          newNames[i] = colName(fr.name(i));
         }
         return new ValFrame(new MRTask() {
           @Override
@@ -65,7 +65,13 @@ public class AstIsNa extends AstBuiltin<AstIsNa> {
     }
   }
 
-  double op(double d) {
+  @Override
+  public double op(double d) {
     return Double.isNaN(d) ? 1 : 0;
   }
+
+  @Override
+  public String colName(String name) {
+    return "isNA(" + name + ")";
+  }
 }
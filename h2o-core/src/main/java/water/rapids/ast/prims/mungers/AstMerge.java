@@ -58,6 +58,10 @@ public class AstMerge extends AstPrimitive {
   // merge-join.
   static final int MAX_HASH_SIZE = 120000000;
 
+  // Bytes of the gathered smaller frame below which the "auto" method joins
+  // by broadcasting it to every node, instead of hashing or sorting.
+  static final long BROADCAST_BYTES = Long.getLong(H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.merge.broadcast.bytes", 64L << 20);
+
   @Override
   public ValFrame apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
     Frame l = stk.track(asts[1].exec(env)).getFrame();
@@ -109,6 +113,11 @@ public class AstMerge extends AstPrimitive {
           throw new IllegalArgumentException("Equality tests on doubles rarely work, please round to integers only before merging");
     }
 
+    if (method.equals("auto")) {
+      ValFrame res = broadcastJoin(l, r, allLeft, allRite, ncols);
+      if (res != null) return res;
+    }
+
     // GC now to sync nodes and get them to use young gen for the working memory. This helps get stable
     // repeatable timings.  Otherwise full GCs can cause blocks. Adding System.gc() here suggested by Cliff
     // during F2F pair-programming and it for sure worked.
@@ -240,6 +249,192 @@ public class AstMerge extends AstPrimitive {
     return new ValFrame(Merge.merge(left, right, cols, cols, allLeft, id_maps));
   }
 
+  /**
+   * Join by gathering the smaller frame into a {@link BroadcastIndex} on this
+   * node, shipping it with the task to every node, and probing it from the
+   * local chunks of the larger frame in one pass.  Neither frame is sorted,
+   * and the larger frame's rows keep their order.  All matching rows of the
+   * smaller frame are joined, in their order.  Output columns are those of
+   * the walked frame, then the non-key columns of the broadcast frame.
+   *
+   * @return null if the join does not qualify: the smaller side must fit
+   * {@link #BROADCAST_BYTES}, hold only numeric, categorical or time columns,
+   * and need not have all its rows in the result.
+   */
+  private static ValFrame broadcastJoin(Frame left, Frame right, boolean allLeft, boolean allRite, int ncols) {
+    if (allLeft && allRite) return null;
+    boolean walkLeft = allLeft || (!allRite && left.numRows() >= right.numRows());
+    Frame walked = walkLeft ? left : right;
+    Frame small = walkLeft ? right : left;
+    if ((8L * small.numCols() + 12) * small.numRows() > BROADCAST_BYTES) return null;
+    for (Vec v : small.vecs())
+      if (!v.isNumeric() && !v.isCategorical() && !v.isTime()) return null;
+
+    // Key levels of the broadcast frame, in the walked frame's levels
+    int[][] id_maps = new int[ncols][];
+    for (int i = 0; i < ncols; i++)
+      if (walked.vec(i).isCategorical())
+        id_maps[i] = CategoricalWrappedVec.computeMap(small.vec(i).domain(), walked.vec(i).domain());
+    BroadcastIndex idx = new BroadcastIndex(ncols, new Gather(ncols, id_maps, small.anyVec().nChunks()).doAll(small));
+
+    int nsmall = small.numCols() - ncols;
+    String[] names = Arrays.copyOf(walked.names(), walked.numCols() + nsmall);
+    System.arraycopy(small.names(), ncols, names, walked.numCols(), nsmall);
+    String[][] domains = Arrays.copyOf(walked.domains(), walked.numCols() + nsmall);
+    System.arraycopy(small.domains(), ncols, domains, walked.numCols(), nsmall);
+    byte[] types = Arrays.copyOf(walked.types(), walked.numCols() + nsmall);
+    System.arraycopy(small.types(), ncols, types, walked.numCols(), nsmall);
+    return new ValFrame(new BroadcastJoin(idx, allLeft || allRite).doAll(types, walked).outputFrame(names, domains));
+  }
+
+  // Gather the rows of a small frame: key columns as longs, row-major, and the
+  // other columns as doubles.  Rows with a missing key can never match, and
+  // are left out.
+  private static class Gather extends MRTask<Gather> {
+    final int _ncols;
+    final int[][] _id_maps;
+    long[][] _keys;             // Per chunk
+    double[][][] _vals;         // Per chunk, per non-key column
+
+    Gather(int ncols, int[][] id_maps, int nchunks) {
+      _ncols = ncols;
+      _id_maps = id_maps;
+      _keys = new long[nchunks][];
+      _vals = new double[nchunks][][];
+    }
+
+    @Override
+    public void map(Chunk chks[]) {
+      int len = chks[0]._len, n = 0;
+      long[] keys = new long[len * _ncols];
+      double[][] vals = new double[chks.length - _ncols][len];
+      rows:
+      for (int i = 0; i < len; i++) {
+        for (int c = 0; c < _ncols; c++) {
+          if (chks[c].isNA(i)) continue rows;
+          long l = chks[c].at8(i);
+          keys[n * _ncols + c] = _id_maps[c] == null ? l : _id_maps[c][(int) l];
+        }
+        for (int c = 0; c < vals.length; c++) vals[c][n] = chks[_ncols + c].atd(i);
+        n++;
+      }
+      for (int c = 0; c < vals.length; c++) vals[c] = Arrays.copyOf(vals[c], n);
+      int cidx = chks[0].cidx();
+      _keys[cidx] = Arrays.copyOf(keys, n * _ncols);
+      _vals[cidx] = vals;
+    }
+
+    @Override
+    public void reduce(Gather g) {
+      if (_keys == g._keys) return;
+      for (int i = 0; i < _keys.length; i++)
+        if (g._keys[i] != null) {
+          _keys[i] = g._keys[i];
+          _vals[i] = g._vals[i];
+        }
+    }
+  }
+
+  // A gathered small frame, with an open-addressing hash index on its keys.
+  // Each slot holds the first row of a distinct key plus one, and rows with
+  // the same key are chained through _next in row order.
+  private static class BroadcastIndex extends Iced<BroadcastIndex> {
+    final int _ncols;
+    final long[] _keys;         // _ncols keys per row
+    final double[][] _vals;     // Non-key columns
+    final int[] _slots;
+    final int[] _next;          // Next row with the same key, or -1
+
+    BroadcastIndex(int ncols, Gather g) {
+      _ncols = ncols;
+      int n = 0, nvals = 0;
+      for (int i = 0; i < g._keys.length; i++) {
+        n += g._keys[i].length / ncols;
+        nvals = g._vals[i].length;
+      }
+      _keys = new long[n * ncols];
+      _vals = new double[nvals][n];
+      for (int i = 0, row = 0; i < g._keys.length; i++) {
+        int len = g._keys[i].length / ncols;
+        System.arraycopy(g._keys[i], 0, _keys, row * ncols, len * ncols);
+        for (int c = 0; c < nvals; c++) System.arraycopy(g._vals[i][c], 0, _vals[c], row, len);
+        row += len;
+      }
+      int cap = 2;
+      while (cap < 2 * n) cap <<= 1;
+      _slots = new int[cap];
+      _next = new int[n];
+      // Backwards, so each chain ends up in row order
+      for (int row = n - 1; row >= 0; row--) {
+        int s = slot(_keys, row * ncols);
+        _next[row] = _slots[s] - 1;
+        _slots[s] = row + 1;
+      }
+    }
+
+    // The slot of a key: the one holding it, or the empty one it goes in
+    private int slot(long[] kw, int off) {
+      int mask = _slots.length - 1;
+      for (int s = AstGroup.GTable.hash(kw, off, _ncols) & mask; ; s = (s + 1) & mask) {
+        int row = _slots[s] - 1;
+        if (row < 0 || same(row, kw, off)) return s;
+      }
+    }
+
+    private boolean same(int row, long[] kw, int off) {
+      for (int c = 0; c < _ncols; c++)
+        if (_keys[row * _ncols + c] != kw[off + c]) return false;
+      return true;
+    }
+
+    // First row with the key, or -1
+    int first(long[] kw) {
+      return _slots[slot(kw, 0)] - 1;
+    }
+  }
+
+  // Probe the broadcast index from every local chunk of the walked frame
+  private static class BroadcastJoin extends MRTask<BroadcastJoin> {
+    final BroadcastIndex _idx;
+    final boolean _allWalked;   // Keep walked rows without a match
+
+    BroadcastJoin(BroadcastIndex idx, boolean allWalked) {
+      _idx = idx;
+      _allWalked = allWalked;
+    }
+
+    @Override
+    public void map(Chunk chks[], NewChunk nchks[]) {
+      final BroadcastIndex idx = _idx;
+      final int ncols = idx._ncols, len = chks[0]._len;
+      long[] kw = new long[ncols];
+      for (int i = 0; i < len; i++) {
+        int row = key(chks, i, kw) ? idx.first(kw) : -1;
+        if (row < 0) {
+          if (!_allWalked) continue;
+          int c = 0;
+          for (; c < chks.length; ++c) JoinTask.addElem(nchks[c], chks[c], i);
+          for (; c < nchks.length; ++c) nchks[c].addNA();
+          continue;
+        }
+        for (; row >= 0; row = idx._next[row]) {
+          int c = 0;
+          for (; c < chks.length; ++c) JoinTask.addElem(nchks[c], chks[c], i);
+          for (; c < nchks.length; ++c) nchks[c].addNum(idx._vals[c - chks.length][row]);
+        }
+      }
+    }
+
+    // Fill in the key of a row; false if any part of it is missing
+    private boolean key(Chunk chks[], int i, long[] kw) {
+      for (int c = 0; c < kw.length; c++) {
+        if (chks[c].isNA(i)) return false;
+        kw[c] = chks[c].at8(i);
+      }
+      return true;
+    }
+  }
+
   // One Row object per row of the hashed dataset, so kept as small as
   // possible.
   private static class Row extends Iced {
@@ -8,9 +8,13 @@ import water.rapids.ast.AstRoot;
 import water.rapids.vals.ValFrame;
 import water.rapids.ast.AstPrimitive;
 
+import java.util.Arrays;
+
 /**
  * Remove rows with NAs from the H2OFrame
  * Note: Current implementation is NOT in-place replacement
+ * Chunks that the zone maps show to have a column of NAs only are skipped
+ * without being loaded, and chunks with no NAs are copied whole.
  */
 public class AstNaOmit extends AstPrimitive {
   @Override
@@ -31,6 +35,10 @@ public class AstNaOmit extends AstPrimitive {
   @Override
   public ValFrame apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
     Frame fr = stk.track(asts[1].exec(env)).getFrame();
+    final byte[] zones = naZones(fr);
+    boolean skips = false;
+    if (zones != null) for (byte z : zones) skips |= z == SKIP;
+    final boolean lazy = skips; // Load only the chunks not skipped
     Frame fr2 = new MRTask() {
       private void copyRow(int row, Chunk[] cs, NewChunk[] ncs) {
         for (int i = 0; i < cs.length; ++i) {
@@ -41,8 +49,26 @@ public class AstNaOmit extends AstPrimitive {
         }
       }
 
+      @Override
+      protected int[] readColumns() {
+        return lazy ? new int[0] : null;
+      }
+
       @Override
       public void map(Chunk[] cs, NewChunk[] ncs) {
+        byte zone = zones == null ? SCAN : zones[ncs[0]._cidx];
+        if (zone == SKIP) return;
+        if (lazy) {
+          Chunk[] loaded = new Chunk[cs.length];
+          for (int col = 0; col < cs.length; ++col)
+            loaded[col] = _fr.vec(col).chunkForChunkIdx(ncs[0]._cidx);
+          cs = loaded;
+        }
+        if (zone == ALL) {
+          for (int col = 0; col < cs.length; ++col)
+            cs[col].extractRows(ncs[col], 0, cs[col]._len);
+          return;
+        }
         int col;
         for (int row = 0; row < cs[0]._len; ++row) {
           for (col = 0; col < cs.length; ++col)
@@ -53,4 +79,26 @@ public class AstNaOmit extends AstPrimitive {
     }.doAll(fr.types(), fr).outputFrame(fr.names(), fr.domains());
     return new ValFrame(fr2);
   }
+
+  private static final byte SCAN = 0, SKIP = 1, ALL = 2;
+
+  // What to do with each chunk, by the zone maps: SKIP if some column is all
+  // NAs, copy ALL rows if no column has an NA, else SCAN; null if some column
+  // has no rollups computed yet
+  private static byte[] naZones(Frame fr) {
+    if (fr.numCols() == 0) return null;
+    long[] espc = fr.anyVec().espc();
+    byte[] zones = new byte[espc.length - 1];
+    Arrays.fill(zones, ALL);
+    for (Vec v : fr.vecs()) {
+      ZoneMap zm = v.zoneMapIfReady();  // Not worth a pass of its own
+      if (zm == null) return null;
+      for (int c = 0; c < zones.length; c++) {
+        int nas = zm.naCnt(c);
+        if (nas == espc[c + 1] - espc[c]) zones[c] = SKIP;
+        else if (nas != 0 && zones[c] == ALL) zones[c] = SCAN;
+      }
+    }
+    return zones;
+  }
 }
@@ -101,13 +101,19 @@ public class AstRowSlice extends AstPrimitive {
       long[] rows = new long[]{(long) (((AstNum) asts[2]).getNum())};
       returningFrame = fr.deepSlice(rows, null);
     } else if ((asts[2] instanceof AstExec) || (asts[2] instanceof AstId)) {
-      Frame predVec = stk.track(asts[2].exec(env)).getFrame();
-      if (predVec.numCols() != 1)
-        throw new IllegalArgumentException("Conditional Row Slicing Expression evaluated to " + predVec.numCols() + " columns.  Must be a boolean Vec.");
-      returningFrame = fr.deepSlice(predVec, null);
+      returningFrame = ZoneFilter.filter(env, stk, fr, asts[2]); // Skip chunks by their zone maps, if the predicate allows
+      if (returningFrame == null)
+        returningFrame = slice(fr, stk.track(asts[2].exec(env)).getFrame());
     } else
       throw new IllegalArgumentException("Row slicing requires a number-list as the last argument, but found a " + asts[2].getClass());
     return new ValFrame(returningFrame);
   }
+
+  // The rows of fr where the evaluated predicate is true
+  static Frame slice(Frame fr, Frame predVec) {
+    if (predVec.numCols() != 1)
+      throw new IllegalArgumentException("Conditional Row Slicing Expression evaluated to " + predVec.numCols() + " columns.  Must be a boolean Vec.");
+    return fr.deepSlice(predVec, null);
+  }
 }
 
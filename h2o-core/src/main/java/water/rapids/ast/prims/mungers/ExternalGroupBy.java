@@ -0,0 +1,287 @@
+package water.rapids.ast.prims.mungers;
+
+import water.*;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.rapids.Merge;
+import water.util.ArrayUtils;
+import water.util.Log;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Group-by for more groups than fit in memory.  A first pass splits the rows
+ * by the hash of their group key into partitions, appending the key and the
+ * aggregated values of each row to a node-local buffer per partition; full
+ * buffers are put in the K/V store as batches and spilled straight to disk.
+ * A second pass aggregates each partition on its own, into its own
+ * {@link AstGroup.GTable}, making one chunk of the output per partition.
+ * So each node holds the groups of a few partitions and a buffer per
+ * partition at a time, however many groups there are in all.
+ * <p/>
+ * As in {@link water.rapids.RadixOrder}, each node publishes a header with
+ * the number of batches it wrote per partition, and the batch keys are named
+ * by partition, node and batch number.  The output is put in key order by
+ * the radix sort of {@link Merge#sort}, so only integer and categorical keys
+ * qualify.
+ */
+final class ExternalGroupBy {
+  /** Set to group externally whenever the keys qualify */
+  static final boolean FORCE = Boolean.getBoolean(H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.gb.spill");
+  /** Bytes of groups above which to group externally; also the memory
+   *  budget of each node while grouping externally */
+  static final long BUDGET = Long.getLong(H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.gb.spill.bytes", MemoryManager.MEM_MAX / 4);
+
+  private ExternalGroupBy() {}
+
+  // Heap bytes per group in a GTable, including the hash slots
+  private static long groupBytes(int nk, AstGroup.AGG[] aggs) {
+    long b = 8L * nk + 8;
+    for (AstGroup.AGG agg : aggs) b += 8L * agg.initVal().length + 8;
+    return b;
+  }
+
+  // Most groups there can be: no more than rows, nor than key combinations
+  private static double maxGroups(Frame fr, int[] gbCols) {
+    double card = 1;
+    for (int c : gbCols) {
+      Vec v = fr.vec(c);
+      card *= (v.isCategorical() ? v.domain().length : v.max() - v.min() + 1) + (v.naCnt() > 0 ? 1 : 0);
+    }
+    return Math.min(card, fr.numRows());
+  }
+
+  /** True if the groups may not fit the budget, and the keys can be sorted */
+  static boolean wanted(Frame fr, int[] gbCols, AstGroup.AGG[] aggs) {
+    if (gbCols.length == 0) return false;
+    for (int c : gbCols)
+      if (!fr.vec(c).isCategorical() && !fr.vec(c).isInt()) return false;
+    return FORCE || maxGroups(fr, gbCols) * groupBytes(gbCols.length, aggs) > BUDGET;
+  }
+
+  /** Group externally; same result as the in-memory GB */
+  static Frame groupBy(Frame fr, int[] gbCols, AstGroup.AGG[] aggs, String[] fcnames) {
+    long start = System.currentTimeMillis();
+    int nk = gbCols.length;
+    // Enough partitions for one per core to fit in the budget of each node
+    double bytes = maxGroups(fr, gbCols) * groupBytes(nk, aggs) * H2O.NUMCPUS / BUDGET;
+    int nparts = 2;
+    while (nparts < bytes && nparts < (1 << 16)) nparts <<= 1;
+    // And buffers of all partitions in half the budget; a floor of a few
+    // rows keeps the number of batches sane for tiny budgets
+    int width = nk + aggs.length;
+    int batchRows = (int) Math.max(MIN_BATCH_ROWS, Math.min(1 << 16, BUDGET / 2 / (8L * width * nparts)));
+    String name = "__gb_spill" + Key.rand();
+
+    int[] cols = Arrays.copyOf(gbCols, width);
+    for (int i = 0; i < aggs.length; i++) cols[nk + i] = aggs[i]._col;
+    Vec parts = null;
+    Frame res;
+    try {
+      new SplitTask(name, cols, nk, nparts, batchRows).doAll(fr);
+      parts = Vec.makeCon(0, nparts, 0, false); // One chunk per partition
+      int nCols = nk + aggs.length;
+      res = new AggTask(name, nk, aggs).doAll(nCols, Vec.T_NUM, new Frame(parts))
+          .outputFrame(AstGroup.outputNames(gbCols, fr, fcnames), AstGroup.outputDomains(gbCols, fr, nCols));
+    } finally {
+      if (parts != null) parts.remove();
+      // Headers, and on error any batches left: a failed split may not have
+      // published its headers, so sweep by name
+      new RemoveSpill(name).doAllNodes();
+    }
+    Log.info("External Group By of " + res.numRows() + " groups in " + nparts + " partitions done in " + (System.currentTimeMillis() - start) / 1000. + " (s)");
+    Frame sorted = Merge.sort(res, ArrayUtils.seq(0, nk));
+    res.delete();
+    return sorted;
+  }
+
+  private static final int MIN_BATCH_ROWS = 16;
+
+  /** Batches written to disk on this node, ever */
+  static final AtomicLong SPILLED = new AtomicLong();
+
+  static Key headerKey(String name, int node) {
+    return Key.make(name + "_header_node" + node, (byte) 1, Key.HIDDEN_USER_KEY, true, H2O.CLOUD._memary[node]);
+  }
+
+  static Key batchKey(String name, int part, int node, int batch) {
+    return Key.make(name + "_part" + part + "_node" + node + "_batch" + batch, (byte) 1, Key.HIDDEN_USER_KEY, true, H2O.CLOUD._memary[node]);
+  }
+
+  // Rows of one partition: key then aggregated values, row after row
+  static class Batch extends Iced<Batch> {
+    final double[] _rows;
+    Batch(double[] rows) { _rows = rows; }
+  }
+
+  // Batches written by a node, per partition
+  static class Header extends Iced<Header> {
+    final int[] _nbatches;
+    Header(int[] nbatches) { _nbatches = nbatches; }
+  }
+
+  // Node-local buffer of a partition, shared by the map calls
+  private static class Part {
+    double[] _buf = new double[0];
+    int _len;                   // Doubles used
+    int _nbatches;
+  }
+
+  // Pass 1: split the rows into the partitions, spilling full batches
+  private static class SplitTask extends MRTask<SplitTask> {
+    private final String _name;
+    private final int[] _cols;  // Key columns, then aggregated columns
+    private final int _nk, _shift, _batchRows;
+    private transient Part[] _parts;
+
+    SplitTask(String name, int[] cols, int nk, int nparts, int batchRows) {
+      _name = name;
+      _cols = cols;
+      _nk = nk;
+      _shift = 32 - Integer.numberOfTrailingZeros(nparts);
+      _batchRows = batchRows;
+    }
+
+    @Override
+    protected void setupLocal() {
+      _parts = new Part[1 << (32 - _shift)];
+      for (int p = 0; p < _parts.length; p++) _parts[p] = new Part();
+    }
+
+    @Override
+    protected int[] readColumns() { return _cols; }
+
+    @Override
+    public void map(Chunk[] cs) {
+      int len = cs[_cols[0]]._len, w = _cols.length;
+      double[][] vals = new double[w][];
+      for (int c = 0; c < w; c++) vals[c] = cs[_cols[c]].getDoubles(new double[len], 0, len);
+      // Bucket the rows of the chunk by partition, then append each bucket
+      int[] part = new int[len], cnts = new int[_parts.length + 1];
+      long[] kw = new long[_nk];
+      for (int row = 0; row < len; row++) {
+        for (int c = 0; c < _nk; c++) kw[c] = Double.doubleToLongBits(vals[c][row]);
+        cnts[(part[row] = AstGroup.GTable.hash(kw, 0, _nk) >>> _shift) + 1]++;
+      }
+      for (int p = 0; p < _parts.length; p++) cnts[p + 1] += cnts[p];
+      double[] rows = new double[len * w];
+      int[] next = Arrays.copyOf(cnts, _parts.length);
+      for (int row = 0; row < len; row++) {
+        int off = next[part[row]]++ * w;
+        for (int c = 0; c < w; c++) rows[off + c] = vals[c][row];
+      }
+      for (int p = 0; p < _parts.length; p++)
+        if (cnts[p + 1] > cnts[p]) append(p, rows, cnts[p] * w, cnts[p + 1] * w);
+    }
+
+    // Full buffers are swapped out under the lock, and written outside it,
+    // so other map calls keep appending to the partition meanwhile
+    private void append(int p, double[] rows, int from, int to) {
+      Part part = _parts[p];
+      int cap = _batchRows * _cols.length;
+      while (from < to) {
+        double[] full = null;
+        int batch = 0;
+        synchronized (part) {
+          int n = Math.min(to - from, cap - part._len);
+          if (part._buf.length < part._len + n)
+            part._buf = Arrays.copyOf(part._buf, Math.min(cap, Math.max(part._len + n, 2 * part._buf.length)));
+          System.arraycopy(rows, from, part._buf, part._len, n);
+          part._len += n;
+          from += n;
+          if (part._len == cap) {
+            full = part._buf;
+            batch = part._nbatches++;
+            part._buf = new double[0];
+            part._len = 0;
+          }
+        }
+        if (full != null) spill(p, batch, full);
+      }
+    }
+
+    private void spill(int p, int batch, double[] rows) {
+      Key k = batchKey(_name, p, H2O.SELF.index(), batch);
+      Value val = new Value(k, new Batch(rows));
+      DKV.put(k, val);
+      try {
+        val.spill();
+      } catch (IOException e) {
+        throw Log.throwErr(e);
+      }
+      if (val.isPersisted()) SPILLED.incrementAndGet();
+    }
+
+    // Spill what is left, and publish the count of batches per partition
+    @Override
+    protected void closeLocal() {
+      int[] nbatches = new int[_parts.length];
+      for (int p = 0; p < _parts.length; p++) {
+        Part part = _parts[p];
+        if (part._len > 0) spill(p, part._nbatches++, Arrays.copyOf(part._buf, part._len));
+        nbatches[p] = part._nbatches;
+      }
+      DKV.put(headerKey(_name, H2O.SELF.index()), new Header(nbatches));
+      _parts = null;
+    }
+  }
+
+  // Remove the header and batch keys of a group-by from every node
+  private static class RemoveSpill extends MRTask<RemoveSpill> {
+    private final String _name;
+    RemoveSpill(String name) { _name = name; }
+    @Override
+    protected void setupLocal() {
+      Futures fs = new Futures();
+      for (Key k : H2O.localKeySet())
+        if (k.toString().startsWith(_name)) DKV.remove(k, fs);
+      fs.blockForPending();
+    }
+  }
+
+  // Pass 2: aggregate the batches of a partition per map call, and write the
+  // partition's groups in key order
+  private static class AggTask extends MRTask<AggTask> {
+    private final String _name;
+    private final int _nk;
+    private final AstGroup.AGG[] _aggs;
+
+    AggTask(String name, int nk, AstGroup.AGG[] aggs) {
+      _name = name;
+      _nk = nk;
+      _aggs = aggs;
+    }
+
+    @Override
+    public void map(Chunk[] cs, NewChunk[] ncs) {
+      int p = cs[0].cidx(), w = _nk + _aggs.length;
+      AstGroup.GTable gt = new AstGroup.GTable(_nk, _aggs);
+      long[] kw = new long[_nk];
+      Futures fs = new Futures();
+      for (int n = 0; n < H2O.CLOUD.size(); n++) {
+        Header h = DKV.getGet(headerKey(_name, n));
+        for (int b = 0; b < h._nbatches[p]; b++) {
+          Key k = batchKey(_name, p, n, b);
+          double[] rows = DKV.<Batch>getGet(k)._rows;
+          for (int off = 0; off < rows.length; off += w) {
+            for (int c = 0; c < _nk; c++) kw[c] = Double.doubleToLongBits(rows[off + c]);
+            int g = gt.group(kw, 0);
+            for (int a = 0; a < _aggs.length; a++)
+              _aggs[a].op(gt._dss[a], gt._ns[a], g, gt._ws[a], rows[off + _nk + a]);
+          }
+          DKV.remove(k, fs);
+        }
+      }
+      for (int g : gt.order()) {
+        int j;
+        for (j = 0; j < _nk; j++) ncs[j].addNum(gt.key(g, j));
+        for (int a = 0; a < _aggs.length; a++) ncs[j++].addNum(gt.result(g, a));
+      }
+      fs.blockForPending();
+    }
+  }
+}
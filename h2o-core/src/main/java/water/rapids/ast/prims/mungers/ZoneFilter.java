@@ -0,0 +1,211 @@
+package water.rapids.ast.prims.mungers;
+
+import water.Iced;
+import water.MRTask;
+import water.fvec.*;
+import water.rapids.Env;
+import water.rapids.Val;
+import water.rapids.ast.AstExec;
+import water.rapids.ast.AstPrimitive;
+import water.rapids.ast.AstRoot;
+import water.rapids.ast.params.AstId;
+import water.rapids.ast.params.AstNum;
+import water.rapids.ast.prims.operators.AstBinOp;
+import water.rapids.vals.ValFrame;
+import water.util.ArrayUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Row filters that skip Chunks by their {@link ZoneMap}.  A predicate made of
+ * comparisons of a column with a constant, such as {@code (> (cols fr 3) 1.5e12)},
+ * joined by {@code &}, rules out every Chunk whose column bounds fail any of
+ * the comparisons.  Those Chunks are not loaded at all: the filter reads no
+ * columns through {@link MRTask#readColumns}, and loads the Chunks of the
+ * remaining rows itself.  On sorted or clustered data a selective filter
+ * then costs the matching Chunks, not the whole Frame.
+ * <p/>
+ * The kept rows are those where the comparisons, by the same
+ * {@link AstBinOp#op}, all give 1 - the same rows as evaluating the predicate
+ * and slicing by it.
+ */
+final class ZoneFilter {
+  private ZoneFilter() {}
+
+  // One comparison of a column with a constant
+  private static class Cmp extends Iced<Cmp> {
+    final AstBinOp _op;
+    final boolean _flip;        // Constant on the left
+    final Vec _vec;
+    final double _k;
+    Cmp(AstBinOp op, boolean flip, Vec vec, double k) { _op = op; _flip = flip; _vec = vec; _k = k; }
+
+    // True if some row in the chunk may compare true
+    boolean mayMatch(ZoneMap zm, int cidx) {
+      double min = zm.min(cidx), max = zm.max(cidx), k = _k;
+      int nas = zm.naCnt(cidx);
+      String op = _op.str();
+      if (_flip) {                // k < X is X > k
+        if (op.equals("<")) op = ">";
+        else if (op.equals("<=")) op = ">=";
+        else if (op.equals(">")) op = "<";
+        else if (op.equals(">=")) op = "<=";
+      }
+      switch (op) {
+        case ">":  return max > k;
+        case ">=": return max >= k;
+        case "<":  return min < k;
+        case "<=": return min <= k;
+        case "==": return min <= k + Math.ulp(k) && max >= k - Math.ulp(k);  // Equal within an ulp
+        case "!=": return nas != 0 || !(min == max && _op.op(min, k) == 0);  // NAs are not equal
+        default: return true;
+      }
+    }
+
+    boolean test(double d) { return (_flip ? _op.op(_k, d) : _op.op(d, _k)) == 1; }
+  }
+
+  /** Filter the rows of fr by the predicate, if it is a conjunction of
+   *  column-constant comparisons; else null, to evaluate the predicate in
+   *  full.  Each column is evaluated once: if no Chunk can be skipped, the
+   *  predicate is computed from the evaluated columns and sliced by. */
+  static Frame filter(Env env, Env.StackHelp stk, Frame fr, AstRoot pred) {
+    if (fr.numCols() == 0 || !conjunction(env, pred)) return null;
+    ArrayList<Frame> cols = new ArrayList<>();
+    columns(env, stk, pred, cols);
+    ArrayList<Cmp> cmps = new ArrayList<>();
+    boolean[] keep = comparisons(env, fr, pred, cols.iterator(), cmps) ? keep(fr, cmps) : null;
+    if (keep == null)
+      return AstRowSlice.slice(fr, stk.track(predicate(env, stk, pred, cols.iterator())).getFrame());
+    return new Filter(keep, cmps.toArray(new Cmp[cmps.size()])).doAll(fr.types(), fr).outputFrame(fr.names(), fr.domains());
+  }
+
+  // Chunks that may hold matching rows; null if the zones rule out none
+  private static boolean[] keep(Frame fr, ArrayList<Cmp> cmps) {
+    int nChunks = fr.anyVec().nChunks();
+    boolean[] keep = new boolean[nChunks];
+    ZoneMap[] zms = new ZoneMap[cmps.size()];
+    for (int i = 0; i < zms.length; i++)
+      if ((zms[i] = cmps.get(i)._vec.zoneMap()) == null) return null;
+    int kept = 0;
+    for (int c = 0; c < nChunks; c++) {
+      keep[c] = true;
+      for (int i = 0; i < zms.length && keep[c]; i++)
+        keep[c] = cmps.get(i).mayMatch(zms[i], c);
+      if (keep[c]) kept++;
+    }
+    return kept == nChunks ? null : keep;
+  }
+
+  // The primitive applied by an exec of 2 arguments, or null
+  private static AstPrimitive binary(Env env, AstRoot ast) {
+    if (!(ast instanceof AstExec)) return null;
+    AstRoot[] asts = ((AstExec) ast)._asts;
+    if (asts.length != 3 || !(asts[0] instanceof AstId)) return null;
+    Val f = asts[0].exec(env);
+    return f.isFun() ? f.getFun() : null;
+  }
+
+  private static boolean isAnd(AstPrimitive prim) { return prim.str().equals("&") || prim.str().equals("&&"); }
+
+  // True if the predicate is a conjunction of comparisons of a column with a
+  // constant, by its shape alone; nothing is evaluated
+  private static boolean conjunction(Env env, AstRoot ast) {
+    AstPrimitive prim = binary(env, ast);
+    if (prim == null) return false;
+    AstRoot[] asts = ((AstExec) ast)._asts;
+    if (isAnd(prim)) return conjunction(env, asts[1]) && conjunction(env, asts[2]);
+    String op = prim.str();
+    if (!op.equals("<") && !op.equals("<=") && !op.equals(">") && !op.equals(">=") && !op.equals("==") && !op.equals("!="))
+      return false;
+    boolean flip = asts[1] instanceof AstNum;
+    return (flip ? asts[1] : asts[2]) instanceof AstNum && isColumn(flip ? asts[2] : asts[1]);
+  }
+
+  // Evaluate the compared columns, in order
+  private static void columns(Env env, Env.StackHelp stk, AstRoot ast, ArrayList<Frame> cols) {
+    AstPrimitive prim = binary(env, ast);
+    AstRoot[] asts = ((AstExec) ast)._asts;
+    if (isAnd(prim)) {
+      columns(env, stk, asts[1], cols);
+      columns(env, stk, asts[2], cols);
+    } else
+      cols.add(stk.track(asts[asts[1] instanceof AstNum ? 2 : 1].exec(env)).getFrame());
+  }
+
+  // Collect the comparisons of a conjunction; false if some are not by value
+  private static boolean comparisons(Env env, Frame fr, AstRoot ast, Iterator<Frame> cols, ArrayList<Cmp> cmps) {
+    AstPrimitive prim = binary(env, ast);
+    AstRoot[] asts = ((AstExec) ast)._asts;
+    if (isAnd(prim))
+      return comparisons(env, fr, asts[1], cols, cmps) && comparisons(env, fr, asts[2], cols, cmps);
+    String op = prim.str();
+    boolean ordered = !op.equals("==") && !op.equals("!=");
+    boolean flip = asts[1] instanceof AstNum;
+    double k = ((AstNum) asts[flip ? 1 : 2]).getNum();
+    Frame x = cols.next();
+    if (Double.isNaN(k) || x.numCols() != 1) return false;
+    Vec v = x.anyVec();
+    // Comparisons of categoricals, and equality of times, are not by value
+    if (!(v.isNumeric() || (ordered && v.isTime()))) return false;
+    if (!v.group().equals(fr.anyVec().group())) return false;
+    cmps.add(new Cmp((AstBinOp) prim, flip, v, k));
+    return true;
+  }
+
+  // The predicate, as its full evaluation computes it, from the evaluated columns
+  private static Val predicate(Env env, Env.StackHelp stk, AstRoot ast, Iterator<Frame> cols) {
+    AstBinOp prim = (AstBinOp) binary(env, ast);
+    AstRoot[] asts = ((AstExec) ast)._asts;
+    if (isAnd(prim)) {
+      Val l = stk.track(predicate(env, stk, asts[1], cols));
+      Val r = stk.track(predicate(env, stk, asts[2], cols));
+      return prim.prim_apply(l, r);
+    }
+    Val x = new ValFrame(cols.next());
+    return asts[1] instanceof AstNum ? prim.prim_apply(asts[1].exec(env), x) : prim.prim_apply(x, asts[2].exec(env));
+  }
+
+  // A frame variable, or a column slice of one
+  private static boolean isColumn(AstRoot ast) {
+    if (ast instanceof AstId) return true;
+    if (!(ast instanceof AstExec)) return false;
+    AstRoot[] asts = ((AstExec) ast)._asts;
+    return asts.length > 1 && asts[0] instanceof AstId && asts[1] instanceof AstId
+        && (asts[0].str().equals("cols") || asts[0].str().equals("cols_py"));
+  }
+
+  private static class Filter extends MRTask<Filter> {
+    private final boolean[] _keep;
+    private final Cmp[] _cmps;
+
+    Filter(boolean[] keep, Cmp[] cmps) {
+      _keep = keep;
+      _cmps = cmps;
+    }
+
+    @Override
+    protected int[] readColumns() { return new int[0]; }  // Loaded on demand, below
+
+    @Override
+    public void map(Chunk[] cs, NewChunk[] ncs) {
+      int cidx = ncs[0]._cidx;
+      if (!_keep[cidx]) return;
+      int[] rows = null;
+      for (Cmp cmp : _cmps) {
+        Chunk c = cmp._vec.chunkForChunkIdx(cidx);
+        if (rows == null) rows = ArrayUtils.seq(0, c._len);
+        int n = 0;
+        for (int row : rows)
+          if (cmp.test(c.atd(row))) rows[n++] = row;
+        rows = Arrays.copyOf(rows, n);
+        if (n == 0) return;
+      }
+      Vec[] vecs = _fr.vecs();
+      for (int c = 0; c < vecs.length; c++)
+        vecs[c].chunkForChunkIdx(cidx).extractRows(ncs[c], rows);
+    }
+  }
+}
@@ -406,5 +406,14 @@ abstract public class AstBinOp extends AstPrimitive {
   public boolean categoricalOK() {
     return false;
   }
+
+  /**
+   * Can this op run as a stage of a fused elementwise pass over numeric
+   * Frames?  Not if it evaluates its arguments lazily, or overrides the
+   * frame ops.
+   */
+  public boolean fusable() {
+    return true;
+  }
 }
 
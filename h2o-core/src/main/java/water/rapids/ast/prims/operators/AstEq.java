@@ -42,6 +42,12 @@ public class AstEq extends AstBinOp {
     }.doAll(fr.numCols(), Vec.T_NUM, fr).outputFrame());
   }
 
+  // frame_op_scalar has its own names
+  @Override
+  public boolean fusable() {
+    return false;
+  }
+
   @Override
   public boolean categoricalOK() {
     return true;
@@ -24,6 +24,12 @@ public class AstLAnd extends AstBinOp {
     return prim_apply(left, rite);
   }
 
+  // Evaluates the right arg lazily
+  @Override
+  public boolean fusable() {
+    return false;
+  }
+
   // 0 trumps NA, and NA trumps 1
   public double op(double l, double r) {
     return and_op(l, r);
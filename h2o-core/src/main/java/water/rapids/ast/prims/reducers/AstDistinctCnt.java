@@ -0,0 +1,37 @@
+package water.rapids.ast.prims.reducers;
+
+import water.fvec.Frame;
+import water.rapids.Env;
+import water.rapids.vals.ValNums;
+import water.rapids.ast.AstPrimitive;
+import water.rapids.ast.AstRoot;
+
+/**
+ * Estimated count of distinct non-NA values per column, from the HyperLogLog
+ * sketch kept with the rollups; no distinct values are materialized.
+ */
+public class AstDistinctCnt extends AstPrimitive {
+  @Override
+  public String[] args() {
+    return new String[]{"ary"};
+  }
+
+  @Override
+  public String str() {
+    return "distinctCnt";
+  }
+
+  @Override
+  public int nargs() {
+    return 1 + 1;
+  }  // (distinctCnt fr)
+
+  @Override
+  public ValNums apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
+    Frame fr = stk.track(asts[1].exec(env)).getFrame();
+    double ds[] = new double[fr.numCols()];
+    for (int i = 0; i < fr.numCols(); ++i)
+      ds[i] = fr.vec(i).distinctEstimate();
+    return new ValNums(ds);
+  }
+}
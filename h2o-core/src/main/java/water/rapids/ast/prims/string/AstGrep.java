@@ -2,6 +2,7 @@ package water.rapids.ast.prims.string;
 
 import water.Iced;
 import water.MRTask;
+import water.fvec.CStrChunk;
 import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.NewChunk;
@@ -109,6 +110,7 @@ public class AstGrep extends AstBuiltin<AstGrep> {
   }
 
   private static class GrepStrTask extends MRTask<GrepStrTask> {
+    private static final byte UNKNOWN = 0, FOUND = 1, NOT_FOUND = 2;
     private final GrepHelper _gh;
 
     GrepStrTask(GrepHelper gh) {
@@ -121,13 +123,20 @@ public class AstGrep extends AstBuiltin<AstGrep> {
       Pattern p = _gh.compilePattern();
       Matcher m = p.matcher("");
       BufferedString bs = new BufferedString();
+      // Dictionary chunks: match each distinct string once, by its offset
+      CStrChunk dict = c instanceof CStrChunk && ((CStrChunk) c).isDictionary() ? (CStrChunk) c : null;
+      byte[] matched = dict == null ? null : new byte[dict.stringBytes()]; // UNKNOWN, FOUND or NOT_FOUND
       int rows = c._len;
       for (int r = 0; r < rows; r++) {
         if (c.isNA(r)) {
           w.addNA(r);
+        } else if (dict == null) {
+          w.addRow(r, m.reset(c.atStr(bs, r).toString()).find());
         } else {
-          m.reset(c.atStr(bs, r).toString());
-          w.addRow(r, m.find());
+          int off = dict.intAt(r);
+          if (matched[off] == UNKNOWN)
+            matched[off] = m.reset(c.atStr(bs, r).toString()).find() ? FOUND : NOT_FOUND;
+          w.addRow(r, matched[off] == FOUND);
         }
       }
     }
@@ -31,7 +31,11 @@ public class ChunkSummary extends MRTask<ChunkSummary> {
       {"C8","8-byte Integers"},
       {"C16","UUIDs"},
       {"CStr","Strings"},
+      {"CRLE","Run-Length Integers"},
+      {"CNB","Bit-Packed Integers"},
+      {"CFOR","Delta-Packed Integers"},
       {"CUD","Unique Reals"},
+      {"C8X","XOR-compressed Reals"},
       {"C8D","64-bit Reals"},
   };
 
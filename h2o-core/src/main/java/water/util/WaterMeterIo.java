@@ -25,6 +25,18 @@ public class WaterMeterIo extends Iced {
 
     @API(help="Cumulative loaded bytes", direction = API.Direction.OUTPUT)
     public long load_bytes;
+
+    @API(help="Cumulative time spent storing, in msec", direction = API.Direction.OUTPUT)
+    public long store_time_ms;
+
+    @API(help="Cumulative time spent loading, in msec", direction = API.Direction.OUTPUT)
+    public long load_time_ms;
+
+    @API(help="Number of allocations stalled waiting for swap-to-disk (ice only)", direction = API.Direction.OUTPUT)
+    public long stall_count;
+
+    @API(help="Cumulative time allocations stalled waiting for swap-to-disk, in msec (ice only)", direction = API.Direction.OUTPUT)
+    public long stall_time_ms;
   }
 
   // Input
@@ -56,6 +68,10 @@ public class WaterMeterIo extends Iced {
         persist_stats[j].delete_count += io.persist_stats[j].delete_count;
         persist_stats[j].load_count += io.persist_stats[j].load_count;
         persist_stats[j].load_bytes += io.persist_stats[j].load_bytes;
+        persist_stats[j].store_time_ms += io.persist_stats[j].store_time_ms;
+        persist_stats[j].load_time_ms += io.persist_stats[j].load_time_ms;
+        persist_stats[j].stall_count += io.persist_stats[j].stall_count;
+        persist_stats[j].stall_time_ms += io.persist_stats[j].stall_time_ms;
       }
     }
   }
@@ -87,6 +103,8 @@ public class WaterMeterIo extends Iced {
         switch (j) {
           case Value.ICE:
             dest_e.backend = "ice";
+            dest_e.stall_count = MemoryManager.stallCount();
+            dest_e.stall_time_ms = MemoryManager.stallNanos() / 1000000;
             break;
           case Value.HDFS:
             dest_e.backend = "hdfs";
@@ -106,6 +124,8 @@ public class WaterMeterIo extends Iced {
         dest_e.delete_count = src_e.delete_count.get();
         dest_e.load_count = src_e.load_count.get();
         dest_e.load_bytes = src_e.load_bytes.get();
+        dest_e.store_time_ms = src_e.store_ns.get() / 1000000;
+        dest_e.load_time_ms = src_e.load_ns.get() / 1000000;
       }
 
       int[] backendsToZeroCheck = new int[] {0, 5, 6, 7};
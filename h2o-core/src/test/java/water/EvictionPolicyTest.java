@@ -0,0 +1,52 @@
+package water;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.util.IcedInt;
+
+public class EvictionPolicyTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  // A Value touched once, recently, goes before one touched twice, long ago
+  @Test public void testLRU2Ordering() {
+    long now = System.currentTimeMillis();
+    Value once = new Value(Key.make(), new IcedInt(1));
+    once._lastAccessedTime = now;
+    once._prevAccessedTime = 0;
+    Value twice = new Value(Key.make(), new IcedInt(2));
+    twice._lastAccessedTime = now - 10000;
+    twice._prevAccessedTime = now - 20000;
+    EvictionPolicy lru = new EvictionPolicy.LRU(), lru2 = new EvictionPolicy.LRU2();
+    Assert.assertTrue(lru.score(once) > lru.score(twice));
+    Assert.assertTrue(lru2.score(once) < lru2.score(twice));
+  }
+
+  // Accesses within a second of each other are one reference
+  @Test public void testCorrelatedAccesses() {
+    Value v = new Value(Key.make(), new IcedInt(3));
+    long t0 = System.currentTimeMillis() - 5000;
+    v.touchAt(t0);
+    v.get();
+    Assert.assertEquals(t0, v.prevAccessedTime());
+    v.get();
+    Assert.assertEquals(t0, v.prevAccessedTime());
+  }
+
+  @Test public void testPinnedUntilRemoved() {
+    Vec vec = Vec.makeCon(1, 1000);
+    Key ck = vec.chunkKey(0);
+    try {
+      EvictionPolicy.pin(new Frame(vec), true);
+      Assert.assertTrue(EvictionPolicy.isPinned(ck));
+      EvictionPolicy.pin(new Frame(vec), false);
+      Assert.assertFalse(EvictionPolicy.isPinned(ck));
+      EvictionPolicy.pin(new Frame(vec), true);
+    } finally {
+      vec.remove();
+    }
+    Assert.assertFalse(EvictionPolicy.isPinned(ck)); // Removing the Vec drops the pin
+  }
+}
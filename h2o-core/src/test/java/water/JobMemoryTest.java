@@ -0,0 +1,94 @@
+package water;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.fvec.Chunk;
+import water.fvec.Vec;
+
+public class JobMemoryTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private static class AllocTask extends MRTask<AllocTask> {
+    @Override public void map(Chunk c) { MemoryManager.malloc8d(c._len); }
+  }
+
+  private static class AllocJob extends H2O.H2OCountedCompleter<AllocJob> {
+    final Job _job;
+    final Vec _vec;
+    AllocJob(Job job, Vec vec) { _job = job; _vec = vec; }
+    @Override public void compute2() {
+      Key<Job> prev = JobMemory.enter(_job._key);
+      try { new AllocTask().doAll(_vec); }
+      finally { JobMemory.exit(prev); }
+      tryComplete();
+    }
+  }
+
+  private static class FailJob extends H2O.H2OCountedCompleter<FailJob> {
+    final Job _job;
+    final Vec _vec;
+    FailJob(Job job, Vec vec) { _job = job; _vec = vec; }
+    @Override public void compute2() {
+      Key<Job> prev = JobMemory.enter(_job._key);
+      try {
+        new AllocTask().doAll(_vec);
+        throw new IllegalStateException("JobMemoryTest failure");
+      } finally { JobMemory.exit(prev); }
+    }
+  }
+
+  // The final total is collected in the background once the Job stops
+  private static long finalAllocated(Job job) throws InterruptedException {
+    for( int i=0; i<500 && job.allocated_total() == 0; i++ ) Thread.sleep(10);
+    return job.allocated_total();
+  }
+
+  @Test public void testAllocationsChargedToJob() throws InterruptedException {
+    Vec vec = Vec.makeCon(0,100000);
+    try {
+      Job job = new Job(null, null, "JobMemoryTest");
+      job.start(new AllocJob(job,vec), 1).get();
+      Assert.assertTrue(finalAllocated(job) >= vec.length()*8);
+      Assert.assertEquals(0, JobMemory.allocatedLocal(job._key)); // Cleared once done
+      Assert.assertNull(JobMemory.current());
+    } finally {
+      vec.remove();
+    }
+  }
+
+  // Charges arriving after a Job stopped are swept when the next Job stops
+  @Test public void testLateChargesSwept() throws InterruptedException {
+    Vec vec = Vec.makeCon(0,100000);
+    try {
+      Job job1 = new Job(null, null, "JobMemoryTest");
+      job1.start(new AllocJob(job1,vec), 1).get();
+      finalAllocated(job1);
+      Key<Job> prev = JobMemory.enter(job1._key);
+      try { MemoryManager.malloc8d(1000); }
+      finally { JobMemory.exit(prev); }
+      Assert.assertTrue(JobMemory.allocatedLocal(job1._key) > 0);
+      Job job2 = new Job(null, null, "JobMemoryTest");
+      job2.start(new AllocJob(job2,vec), 1).get();
+      finalAllocated(job2);
+      Assert.assertEquals(0, JobMemory.allocatedLocal(job1._key));
+    } finally {
+      vec.remove();
+    }
+  }
+
+  @Test public void testCountersClearedOnFailure() throws InterruptedException {
+    Vec vec = Vec.makeCon(0,100000);
+    try {
+      Job job = new Job(null, null, "JobMemoryTest");
+      try {
+        job.start(new FailJob(job,vec), 1).get();
+        Assert.fail("Expected the job to fail");
+      } catch( RuntimeException expected ) { }
+      Assert.assertTrue(finalAllocated(job) >= vec.length()*8);
+      Assert.assertEquals(0, JobMemory.allocatedLocal(job._key));
+    } finally {
+      vec.remove();
+    }
+  }
+}
@@ -1,10 +1,13 @@
 package water;
 
 import org.junit.*;
+import water.fvec.Frame;
 import water.fvec.Vec;
 import water.fvec.Chunk;
+import water.util.ArrayUtils;
 import water.util.PrettyPrint;
 
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
@@ -55,6 +58,74 @@ public class MRTaskTest extends TestUtil {
       assertTrue("too many unreduced results, should be <= " + max_unreduced_elems + " but was " + max_cnt, max_cnt <= max_unreduced_elems);
     }
   }
+
+  // Per-thread accumulators give the same results with far fewer reductions
+  @Test public void testAccumulateByThread() {
+    Vec vec = Vec.makeCon(1.0, 100000L, 4, true); // 16 rows per chunk
+    try {
+      SumTask plain = new SumTask(false).doAll(vec);
+      SumTask byThread = new SumTask(true).doAll(vec);
+      assertEquals(vec.nChunks() - 1, plain._nreduce);
+      assertTrue("too many reductions: " + byThread._nreduce, byThread._nreduce < vec.nChunks() / 2);
+      assertTrue(Arrays.equals(plain._sums, byThread._sums));
+      assertEquals(vec.length(), ArrayUtils.sum(byThread._sums), 0);
+    } finally {
+      vec.remove();
+    }
+  }
+
+  private static class SumTask extends MRTask<SumTask> {
+    final boolean _byThread;
+    double[] _sums;             // Row sums by row number mod 1024
+    int _nreduce;
+    SumTask(boolean byThread) { _byThread = byThread; }
+    @Override protected boolean accumulateByThread() { return _byThread; }
+    @Override public void map(Chunk c) {
+      if (_sums == null) _sums = new double[1024];
+      for (int i = 0; i < c._len; i++)
+        _sums[(int) ((c.start() + i) % 1024)] += c.atd(i);
+    }
+    @Override public void reduce(SumTask t) {
+      ArrayUtils.add(_sums, t._sums);
+      _nreduce += t._nreduce + 1;
+    }
+  }
+
+  // Only the declared columns are loaded
+  @Test public void testReadColumns() {
+    Vec a = Vec.makeCon(1.0, 10000L, 8, true);
+    Frame fr = new Frame(new String[]{"a", "b", "c"}, new Vec[]{a, a.makeCon(2.0), a.makeCon(3.0)});
+    try {
+      ColSum cs = new ColSum().doAll(fr);
+      assertEquals(2.0 * fr.numRows(), cs._sum, 0);
+    } finally {
+      fr.delete();
+    }
+  }
+
+  private static class ColSum extends MRTask<ColSum> {
+    double _sum;
+    @Override protected int[] readColumns() { return new int[]{1}; }
+    @Override public void map(Chunk[] cs) {
+      assertTrue(cs[0] == null && cs[2] == null);
+      for (int i = 0; i < cs[1]._len; i++) _sum += cs[1].atd(i);
+    }
+    @Override public void reduce(ColSum t) { _sum += t._sum; }
+  }
+
+  // Local runs fetch remote chunks ahead, and profile the hit rate
+  @Test public void testPrefetchRunLocal() {
+    Vec vec = Vec.makeCon(1.0, 100000L, 6, true);
+    try {
+      SumTask cs = new SumTask(false).profile().doAll(vec, true);
+      assertEquals(vec.length(), ArrayUtils.sum(cs._sums), 0);
+      if (H2O.CLOUD.size() > 1)
+        assertTrue(cs.profString(), cs.profString().contains("prefetch hits"));
+    } finally {
+      vec.remove();
+    }
+  }
+
   // Test speed of calling 1M map calls
   @Test
   public void testMillionMaps() {
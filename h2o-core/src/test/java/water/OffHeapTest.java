@@ -0,0 +1,88 @@
+package water;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.fvec.Vec;
+
+public class OffHeapTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testStoreAndReload() {
+    long oldMax = MemoryManager.OFFHEAP_MAX;
+    Vec vcon = Vec.makeCon(0,1024,6);
+    Vec vrnd = vcon.makeRand(0xDECAFL);
+    vcon.remove();
+    try {
+      MemoryManager.OFFHEAP_MAX = 1L<<20;
+      double[] expected = new double[(int)vrnd.length()];
+      for( int i=0; i<expected.length; i++ ) expected[i] = vrnd.at(i);
+      int nchks = vrnd.nChunks();
+      Value[] vals = new Value[nchks];
+      long used = MemoryManager.offHeapUsed();
+      for( int i=0; i<nchks; i++ ) {
+        vals[i] = vrnd.chunkIdx(i);
+        vals[i].memOrLoad(); // Make sure the byte[] form is around
+        Assert.assertTrue(vals[i].storeOffHeap());
+        Assert.assertTrue(vals[i].isOffHeap());
+        Assert.assertNull(vals[i].rawMem());
+        Assert.assertNull(vals[i].rawPOJO());
+        used += vals[i]._max;
+      }
+      Assert.assertEquals(used, MemoryManager.offHeapUsed());
+      // Reading the data back copies it onto the heap, keeping the off-heap copy
+      for( int i=0; i<expected.length; i++ )
+        Assert.assertEquals(expected[i], vrnd.at(i), 0);
+      for( int i=0; i<nchks; i++ ) {
+        Assert.assertTrue(vals[i].isOffHeap());
+        Assert.assertNotNull(vals[i].rawMem());
+      }
+      Assert.assertEquals(used, MemoryManager.offHeapUsed());
+      // Spilling to disk returns the off-heap budget
+      for( int i=0; i<nchks; i++ ) {
+        vals[i].freeMem();
+        vals[i].freePOJO();
+        Assert.assertTrue(vals[i].spillOffHeap());
+        Assert.assertFalse(vals[i].isOffHeap());
+        Assert.assertTrue(vals[i].isPersisted());
+        used -= vals[i]._max;
+      }
+      Assert.assertEquals(used, MemoryManager.offHeapUsed());
+      for( int i=0; i<expected.length; i++ )
+        Assert.assertEquals(expected[i], vrnd.at(i), 0);
+    } finally {
+      MemoryManager.OFFHEAP_MAX = oldMax;
+      vrnd.remove();
+    }
+  }
+
+  // Replacing a Value returns the budget of its off-heap copy
+  @Test public void testReplaceReturnsBudget() {
+    long oldMax = MemoryManager.OFFHEAP_MAX;
+    Key k = Key.make();
+    try {
+      MemoryManager.OFFHEAP_MAX = 1L<<20;
+      long used = MemoryManager.offHeapUsed();
+      Value v = new Value(k, new byte[1000]);
+      DKV.put(k, v);
+      Assert.assertTrue(v.storeOffHeap());
+      Assert.assertEquals(used + 1000, MemoryManager.offHeapUsed());
+      DKV.put(k, new Value(k, new byte[10]));
+      Assert.assertFalse(v.isOffHeap());
+      Assert.assertEquals(used, MemoryManager.offHeapUsed());
+    } finally {
+      MemoryManager.OFFHEAP_MAX = oldMax;
+      DKV.remove(k);
+    }
+  }
+
+  @Test public void testBudget() {
+    long oldMax = MemoryManager.OFFHEAP_MAX;
+    try {
+      MemoryManager.OFFHEAP_MAX = 0;
+      Assert.assertNull(MemoryManager.mallocOffHeap(16)); // Disabled
+    } finally {
+      MemoryManager.OFFHEAP_MAX = oldMax;
+    }
+  }
+}
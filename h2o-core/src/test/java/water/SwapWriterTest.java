@@ -0,0 +1,61 @@
+package water;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SwapWriterTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  // A late write of a replaced Value must not clobber the newer Value's file
+  @Test public void testStaleWriteIsDiscarded() throws IOException {
+    Key k = Key.make();
+    byte[] b1 = new byte[]{1,2,3}, b2 = new byte[]{4,5,6,7};
+    try {
+      Value v1 = new Value(k, b1);
+      DKV.put(k, v1);
+      Value v2 = new Value(k, b2);
+      DKV.put(k, v2);
+      v2.storePersist();
+      v1.storePersist();        // Write-behind of the replaced Value, after the newer one
+      Assert.assertFalse(v1.isPersisted());
+      Assert.assertTrue(v2.isPersisted());
+      v2.freeMem();
+      Assert.assertArrayEquals(b2, v2.memOrLoad());
+    } finally {
+      DKV.remove(k);
+    }
+  }
+
+  // Writes of every version of a Key, racing each other, leave the latest on disk
+  @Test public void testWriteOrdering() throws Exception {
+    Key k = Key.make();
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      ArrayList<Future<?>> writes = new ArrayList<>();
+      Value last = null;
+      for( int i=0; i<100; i++ ) {
+        final Value v = new Value(k, new byte[]{(byte)i,(byte)(i>>8),42});
+        DKV.put(k, v);
+        last = v;
+        writes.add(pool.submit(new java.util.concurrent.Callable<Void>() {
+          @Override public Void call() throws IOException { v.storePersist(); return null; }
+        }));
+      }
+      for( Future<?> f : writes ) f.get();
+      last.storePersist();
+      Assert.assertTrue(last.isPersisted());
+      last.freeMem();
+      Assert.assertArrayEquals(new byte[]{99,0,42}, last.memOrLoad());
+    } finally {
+      pool.shutdown();
+      DKV.remove(k);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package water.fvec;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.IcedUtils;
+import water.TestUtil;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class C8XChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  // A slowly drifting sensor reading with float precision, repeats, and NAs
+  private static double[] readings(int len) {
+    double[] vals = new double[len];
+    for (int i = 0; i < len; ++i)
+      vals[i] = i % 101 == 0 ? Double.NaN : (float) (20 + Math.sin(i / 100.0));
+    vals[len / 2 + 1] = vals[len / 2];
+    vals[3] = -1e300;           // One wild value, needing a wide window
+    return vals;
+  }
+
+  private static void check(double[] vals, Chunk cc) {
+    Assert.assertEquals(vals.length, cc._len);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(vals[i], cc.atd(i), 0);
+    for (int i = vals.length - 1; i >= 0; i -= 3) Assert.assertEquals(Double.isNaN(vals[i]), cc.isNA(i));
+  }
+
+  @Test
+  public void test_inflate_impl() {
+    double[] vals = readings(1000);
+    NewChunk nc = new NewChunk(null, 0);
+    for (double v : vals) nc.addNum(v);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof C8XChunk);
+    Assert.assertTrue(cc._mem.length <= 0.75 * 8 * vals.length);
+    check(vals, cc);
+
+    double[] dense = cc.getDoubles(new double[700], 150, 850, -1);
+    for (int i = 0; i < dense.length; ++i)
+      Assert.assertEquals(Double.isNaN(vals[150 + i]) ? -1 : vals[150 + i], dense[i], 0);
+
+    Chunk cc2 = IcedUtils.deepCopy(cc);
+    Assert.assertTrue(cc2 instanceof C8XChunk);
+    check(vals, cc2);
+
+    nc = cc.extractRows(new NewChunk(null, 0), 0, vals.length);
+    Assert.assertEquals(vals.length, nc._len);
+    cc2 = nc.compress();
+    Assert.assertTrue(cc2 instanceof C8XChunk);
+    check(vals, cc2);
+    Assert.assertTrue(Arrays.equals(cc._mem, cc2._mem));
+
+    Assert.assertTrue(cc.set_impl(5, vals[5]));
+    Assert.assertFalse(cc.set_impl(5, vals[5] + 1));
+    Assert.assertTrue(cc.setNA_impl(0));
+    Assert.assertFalse(cc.setNA_impl(5));
+  }
+
+  // Threads sharing a chunk, each scanning in its own order, see their own blocks
+  @Test
+  public void testConcurrentReaders() throws Exception {
+    final double[] vals = readings(5000);
+    NewChunk nc = new NewChunk(null, 0);
+    for (double v : vals) nc.addNum(v);
+    final Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof C8XChunk);
+    Thread[] ts = new Thread[4];
+    final Throwable[] errs = new Throwable[ts.length];
+    for (int t = 0; t < ts.length; ++t) {
+      final int k = t;
+      ts[t] = new Thread() {
+        @Override public void run() {
+          try {
+            for (int rep = 0; rep < 20; ++rep)
+              for (int i = 0; i < vals.length; ++i) {
+                int row = k % 2 == 0 ? i : vals.length - 1 - i;
+                Assert.assertEquals(vals[row], cc.atd(row), 0);
+              }
+          } catch (Throwable e) {
+            errs[k] = e;
+          }
+        }
+      };
+      ts[t].start();
+    }
+    for (int t = 0; t < ts.length; ++t) {
+      ts[t].join();
+      if (errs[t] != null) throw new AssertionError(errs[t]);
+    }
+  }
+
+  @Test
+  public void testRandom() {
+    Random r = new Random(42);
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < 1000; ++i) nc.addNum(r.nextDouble());
+    Assert.assertTrue(nc.compress() instanceof C8DChunk);
+  }
+}
@@ -0,0 +1,86 @@
+package water.fvec;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.IcedUtils;
+import water.TestUtil;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class CFORChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  // Millisecond timestamps, one per second with a little jitter, and a few NAs
+  private static long[] timestamps(int len, int jitter) {
+    Random r = new Random(42);
+    long[] vals = new long[len];
+    for (int i = 0; i < len; ++i)
+      vals[i] = 1500000000000L + 1000L * i + (jitter == 0 ? 0 : r.nextInt(jitter));
+    return vals;
+  }
+
+  private static NewChunk load(long[] vals, int naStride) {
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < vals.length; ++i)
+      if (naStride > 0 && i % naStride == 0) nc.addNA();
+      else nc.addNum(vals[i], 0);
+    return nc;
+  }
+
+  private static void check(long[] vals, int naStride, Chunk cc) {
+    Assert.assertEquals(vals.length, cc._len);
+    for (int i = 0; i < vals.length; ++i) {
+      boolean na = naStride > 0 && i % naStride == 0;
+      Assert.assertEquals(na, cc.isNA(i));
+      if (!na) Assert.assertEquals(vals[i], cc.at8(i));
+    }
+  }
+
+  @Test
+  public void test_inflate_impl() {
+    long[] vals = timestamps(1000, 50);
+    Chunk cc = load(vals, 97).compress();
+    Assert.assertTrue(cc instanceof CFORChunk);
+    Assert.assertTrue(cc._mem.length < vals.length * 2);
+    check(vals, 97, cc);
+
+    double[] dense = cc.getDoubles(new double[500], 100, 600, -1);
+    for (int i = 0; i < dense.length; ++i)
+      Assert.assertEquals((100 + i) % 97 == 0 ? -1 : vals[100 + i], dense[i], 0);
+
+    Chunk cc2 = IcedUtils.deepCopy(cc);
+    Assert.assertTrue(cc2 instanceof CFORChunk);
+    check(vals, 97, cc2);
+
+    NewChunk nc = cc.extractRows(new NewChunk(null, 0), 0, vals.length);
+    Assert.assertEquals(vals.length, nc._len);
+    cc2 = nc.compress();
+    Assert.assertTrue(cc2 instanceof CFORChunk);
+    check(vals, 97, cc2);
+    Assert.assertTrue(Arrays.equals(cc._mem, cc2._mem));
+
+    Assert.assertTrue(cc.set_impl(1, vals[1]));
+    Assert.assertFalse(cc.set_impl(1, vals[1] + 1));
+    Assert.assertTrue(cc.setNA_impl(0));
+    Assert.assertFalse(cc.setNA_impl(1));
+  }
+
+  @Test
+  public void testEvenlySpaced() {
+    long[] vals = timestamps(1000, 0);
+    Chunk cc = load(vals, 0).compress();
+    Assert.assertTrue(cc instanceof CFORChunk);
+    Assert.assertEquals(CFORChunk.dataOffset(CFORChunk.nblocks(vals.length)) + 8, cc._mem.length); // Zero bits per row
+    check(vals, 0, cc);
+  }
+
+  @Test
+  public void testRandom() {
+    Random r = new Random(42);
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < 1000; ++i) nc.addNum(r.nextLong(), 0);
+    Assert.assertTrue(nc.compress() instanceof C8Chunk);
+  }
+}
@@ -0,0 +1,92 @@
+package water.fvec;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.IcedUtils;
+import water.TestUtil;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class CNBChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  // Random values in [lo,lo+levels), and an NA every 37 rows
+  private static long[] values(int len, long lo, int levels) {
+    Random r = new Random(42);
+    long[] vals = new long[len];
+    for (int i = 0; i < len; ++i) vals[i] = lo + r.nextInt(levels);
+    return vals;
+  }
+
+  private static boolean isNA(int i) { return i % 37 == 0; }
+
+  private static void check(long[] vals, Chunk cc) {
+    Assert.assertEquals(vals.length, cc._len);
+    for (int i = 0; i < vals.length; ++i) {
+      Assert.assertEquals(isNA(i), cc.isNA(i));
+      if (!isNA(i)) Assert.assertEquals(vals[i], cc.at8(i));
+    }
+  }
+
+  @Test
+  public void test_inflate_impl() {
+    long[] vals = values(1000, -300, 600);
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < vals.length; ++i)
+      if (isNA(i)) nc.addNA();
+      else nc.addNum(vals[i], 0);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CNBChunk);
+    Assert.assertEquals(CNBChunk.byteSize(vals.length, 10), cc._mem.length);
+    check(vals, cc);
+
+    double[] dense = cc.getDoubles(new double[700], 150, 850, -1);
+    for (int i = 0; i < dense.length; ++i)
+      Assert.assertEquals(isNA(150 + i) ? -1 : vals[150 + i], dense[i], 0);
+    int[] ints = cc.getIntegers(new int[vals.length], 0, vals.length, Integer.MIN_VALUE);
+    for (int i = 0; i < ints.length; ++i)
+      Assert.assertEquals(isNA(i) ? Integer.MIN_VALUE : vals[i], ints[i]);
+
+    Chunk cc2 = IcedUtils.deepCopy(cc);
+    Assert.assertTrue(cc2 instanceof CNBChunk);
+    check(vals, cc2);
+
+    nc = cc.extractRows(new NewChunk(null, 0), 0, vals.length);
+    Assert.assertEquals(vals.length, nc._len);
+    cc2 = nc.compress();
+    Assert.assertTrue(cc2 instanceof CNBChunk);
+    check(vals, cc2);
+    Assert.assertTrue(Arrays.equals(cc._mem, cc2._mem));
+
+    // Values within the packed range are written in place
+    Assert.assertTrue(cc.set_impl(1, 299L));
+    Assert.assertTrue(cc.setNA_impl(2));
+    Assert.assertEquals(299, cc.at8(1));
+    Assert.assertTrue(cc.isNA(2));
+    Assert.assertEquals(vals[3], cc.at8(3));
+    Assert.assertFalse(cc.set_impl(1, 1000L));
+    Assert.assertFalse(cc.set_impl(1, 0.5));
+  }
+
+  @Test
+  public void testCategorical() {
+    long[] vals = values(1000, 0, 40);
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < vals.length; ++i)
+      if (isNA(i)) nc.addNA();
+      else nc.addCategorical((int) vals[i]);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CNBChunk);
+    Assert.assertEquals(CNBChunk.byteSize(vals.length, 6), cc._mem.length);
+    check(vals, cc);
+  }
+
+  @Test
+  public void testWholeBytes() {
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < 1000; ++i) nc.addNum(i % 200, 0);
+    Assert.assertTrue(nc.compress() instanceof C1NChunk);
+  }
+}
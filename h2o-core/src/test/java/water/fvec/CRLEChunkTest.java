@@ -0,0 +1,86 @@
+package water.fvec;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.IcedUtils;
+import water.TestUtil;
+
+import java.util.Arrays;
+
+public class CRLEChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  // Runs of 7, NA, -3, 0 and a large value: 4-byte run values
+  private static double[] runs() {
+    double[] vals = new double[5000];
+    Arrays.fill(vals,    0, 1000, 7);
+    Arrays.fill(vals, 1000, 1500, Double.NaN);
+    Arrays.fill(vals, 1500, 3500, -3);
+    Arrays.fill(vals, 3500, 4000, 0);
+    Arrays.fill(vals, 4000, 5000, 100000);
+    return vals;
+  }
+
+  private static void check(double[] vals, Chunk cc) {
+    Assert.assertEquals(vals.length, cc._len);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(vals[i], cc.atd(i), 0);
+    for (int i = vals.length - 1; i >= 0; --i) Assert.assertEquals(Double.isNaN(vals[i]), cc.isNA(i));
+    for (int i = 0; i < vals.length; i += 7) Assert.assertEquals(vals[i], cc.at_abs(i), 0);
+  }
+
+  @Test
+  public void test_inflate_impl() {
+    double[] vals = runs();
+    NewChunk nc = new NewChunk(null, 0);
+    for (double v : vals) nc.addNum(v);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CRLEChunk);
+    Assert.assertEquals(5, ((CRLEChunk) cc).numRuns());
+    Assert.assertTrue(cc._mem.length < 100);
+    check(vals, cc);
+
+    double[] dense = cc.getDoubles(new double[2000], 900, 2900, -1);
+    for (int i = 0; i < dense.length; ++i)
+      Assert.assertEquals(Double.isNaN(vals[900 + i]) ? -1 : vals[900 + i], dense[i], 0);
+    int[] ints = cc.getIntegers(new int[vals.length], 0, vals.length, Integer.MIN_VALUE);
+    for (int i = 0; i < ints.length; ++i)
+      Assert.assertEquals(Double.isNaN(vals[i]) ? Integer.MIN_VALUE : (int) vals[i], ints[i]);
+
+    Chunk cc2 = IcedUtils.deepCopy(cc);
+    Assert.assertTrue(cc2 instanceof CRLEChunk);
+    check(vals, cc2);
+
+    nc = cc.extractRows(new NewChunk(null, 0), 0, vals.length);
+    Assert.assertEquals(vals.length, nc._len);
+    cc2 = nc.compress();
+    Assert.assertTrue(cc2 instanceof CRLEChunk);
+    check(vals, cc2);
+    Assert.assertTrue(Arrays.equals(cc._mem, cc2._mem));
+
+    // Writes which keep the value stick; anything else needs inflating
+    Assert.assertTrue(cc.set_impl(10, 7L));
+    Assert.assertTrue(cc.setNA_impl(1200));
+    Assert.assertFalse(cc.set_impl(10, 8L));
+    Assert.assertFalse(cc.setNA_impl(10));
+  }
+
+  @Test
+  public void testCategorical() {
+    NewChunk nc = new NewChunk(null, 0);
+    for (int c = 0; c < 3; ++c)
+      for (int i = 0; i < 1000; ++i) nc.addCategorical(c);
+    nc.addNA();
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CRLEChunk);
+    for (int i = 0; i < 3000; ++i) Assert.assertEquals(i / 1000, cc.at8(i));
+    Assert.assertTrue(cc.isNA(3000));
+  }
+
+  @Test
+  public void testNoRuns() {
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < 1000; ++i) nc.addNum(i % 200, 0);
+    Assert.assertTrue(nc.compress() instanceof C1NChunk);
+  }
+}
@@ -147,6 +147,60 @@ public class CStrChunkTest extends TestUtil {
     assertEquals("cray tweet", sut.at(7));
   }
 
+  @Test
+  public void test_dictionary() {
+    String[] levels = {"INFO", "WARN", " Error ", "DEBUG"};
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < 1000; i++)
+      if (i % 17 == 0) nc.addNA();
+      else nc.addStr(levels[i % levels.length]);
+    CStrChunk cc = (CStrChunk) nc.compress();
+    assertTrue(cc.isDictionary());
+    assertTrue(cc._mem.length < 1000 * 5);
+    assertEquals(cc.intAt(1), cc.intAt(5));
+    BufferedString tmpStr = new BufferedString();
+    for (int i = 0; i < 1000; i++)
+      if (i % 17 == 0) assertTrue(cc.isNA(i));
+      else assertEquals(levels[i % levels.length], cc.atStr(tmpStr, i).toString());
+
+    CStrChunk cc2 = IcedUtils.deepCopy(cc);
+    assertTrue(cc2.isDictionary());
+    assertTrue(cc2._isAllASCII);
+
+    // In-place ops work on the dictionary, and their result is one again
+    CStrChunk trimmed = (CStrChunk) cc.asciiTrim(new NewChunk(null, 0)).compress();
+    CStrChunk lower = (CStrChunk) cc.asciiToLower(new NewChunk(null, 0)).compress();
+    assertTrue(lower.isDictionary());
+    for (int i = 1; i < 1000; i++)
+      if (i % 17 != 0) {
+        assertEquals(levels[i % levels.length].trim(), trimmed.atStr(tmpStr, i).toString());
+        assertEquals(levels[i % levels.length].toLowerCase(), lower.atStr(tmpStr, i).toString());
+      }
+
+    // Prefixes of each other and the empty string stay distinct; many levels probe the table
+    nc = new NewChunk(null, 0);
+    for (int i = 0; i < 1000; i++) nc.addStr(i % 3 == 0 ? "" : i % 3 == 1 ? "ab" + (i % 200) : "a" + (i % 200));
+    cc = (CStrChunk) nc.compress();
+    assertTrue(cc.isDictionary());
+    for (int i = 0; i < 1000; i++)
+      assertEquals(i % 3 == 0 ? "" : i % 3 == 1 ? "ab" + (i % 200) : "a" + (i % 200), cc.atStr(tmpStr, i).toString());
+
+    // Mostly distinct strings are stored as they are
+    nc = new NewChunk(null, 0);
+    for (int i = 0; i < 1000; i++) nc.addStr("Foo" + (i % 600));
+    assertFalse(((CStrChunk) nc.compress()).isDictionary());
+
+    // Large chunks are sampled first: all-distinct ones bail early, low-cardinality ones still dedup
+    nc = new NewChunk(null, 0);
+    for (int i = 0; i < 10000; i++) nc.addStr("Foo" + i);
+    assertFalse(((CStrChunk) nc.compress()).isDictionary());
+    nc = new NewChunk(null, 0);
+    for (int i = 0; i < 10000; i++) nc.addStr("Foo" + (i % 100));
+    cc = (CStrChunk) nc.compress();
+    assertTrue(cc.isDictionary());
+    assertEquals("Foo42", cc.atStr(tmpStr, 4242).toString());
+  }
+
   @Test
   public void test_rstrip_was_failing() {
     TextChunk sut = new TextChunk(Arrays.asList(""));
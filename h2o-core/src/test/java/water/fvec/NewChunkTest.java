@@ -26,9 +26,10 @@ public class NewChunkTest extends TestUtil {
     av = new AppendableVec(Vec.newKey(), Vec.T_NUM);
     nc = new NewChunk(av, 0);
   }
-  private void post() {
+  private void post() { post(K); }
+  private void post(int len) {
     cc = nc.compress();
-    av._tmp_espc[0] = K; //HACK
+    av._tmp_espc[0] = len; //HACK
     cc._start = 0; //HACK
     cc._cidx = 0; // HACK as well
     Futures fs = new Futures();
@@ -434,7 +435,48 @@ public class NewChunkTest extends TestUtil {
       post();
       Assert.assertTrue(cc.isNA_abs(0));
       for (int k = 1; k < K; ++k) Assert.assertEquals(k%254, cc.at8(k));
+      // Short chunks span fewer than 8 bits, and may be bit-packed
+      Assert.assertTrue(cc instanceof C1Chunk || K < 254 && cc instanceof CNBChunk);
+    } finally { remove(); }
+  }
+  /**
+   * A range needing all 8 bits stays C1Chunk, and in-range writes stay in place
+   */
+  @Test public void testC1Chunk_wholeByte() {
+    final int N = 1000;
+    try { pre();
+      nc.addNA();
+      for (int k = 1; k < N; ++k) nc.addNum(k%254);
+      post(N);
       Assert.assertTrue(cc instanceof C1Chunk);
+      cc.set(N - 1, 7);
+      Assert.assertTrue(cc.chk2() instanceof C1Chunk); // written in place
+      post_write();
+      Assert.assertTrue(cc.isNA_abs(0));
+      for (int k = 1; k < N-1; ++k) Assert.assertEquals(k%254, cc.at8(k));
+      Assert.assertEquals(7, cc.at8(N - 1));
+    } finally { remove(); }
+  }
+  /**
+   * A range needing all 16 bits stays C2Chunk, and in-range writes stay in place
+   */
+  @Test public void testC2Chunk_wholeShort() {
+    final int N = 1000;
+    try { pre();
+      nc.addNA();
+      nc.addNum(-30000);
+      nc.addNum(30000);
+      for (int k = 3; k < N; ++k) nc.addNum(k*7919%60001 - 30000);
+      post(N);
+      Assert.assertTrue(cc instanceof C2Chunk);
+      cc.set(N - 1, 12345);
+      Assert.assertTrue(cc.chk2() instanceof C2Chunk); // written in place
+      post_write();
+      Assert.assertTrue(cc.isNA_abs(0));
+      Assert.assertEquals(-30000, cc.at8(1));
+      Assert.assertEquals(30000, cc.at8(2));
+      for (int k = 3; k < N-1; ++k) Assert.assertEquals(k*7919%60001 - 30000, cc.at8(k));
+      Assert.assertEquals(12345, cc.at8(N - 1));
     } finally { remove(); }
   }
   @Test public void testC1Chunk_inflateToLarger() {
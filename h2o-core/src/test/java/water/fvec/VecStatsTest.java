@@ -71,4 +71,60 @@ public class VecStatsTest extends TestUtil {
     vec.remove();
 
   }
+
+  @Test public void testDistinctEstimate() {
+    Vec vec = vec(3, 1, 4, 1, 5, 9, 2, 6, 5, 3, 5);
+    Assert.assertEquals(7, vec.distinctEstimate()); // Small counts are exact
+    vec.remove();
+
+    double[] ds = new double[100000];
+    for( int i = 0; i < ds.length; i++ ) ds[i] = i % 20000 == 7 ? Double.NaN : i % 20000;
+    vec = dvec(ds);
+    Assert.assertEquals(19999, vec.distinctEstimate(), 19999 * 0.05);
+    vec.set(0, 20000);          // Writes drop the sketch with the rest of the rollups
+    Assert.assertEquals(20000, vec.distinctEstimate(), 20000 * 0.05);
+    vec.remove();
+
+    Frame fr = new Frame(Key.<Frame>make(), new String[]{"s"}, new Vec[]{svec("a", "b", "a", null, "c")});
+    water.DKV.put(fr);
+    double[] ests = water.rapids.Rapids.exec("(distinctCnt " + fr._key + ")").getNums();
+    Assert.assertEquals(3, ests[0], 0);
+    fr.delete();
+  }
+
+  // Rolling up again after an edit merges the kept rollups of the chunks not
+  // written with the new ones of those written
+  @Test public void testIncrementalRollups() {
+    double[] ds = new double[1000];
+    for( int i = 0; i < ds.length; i++ ) ds[i] = i % 10;
+    long[] layout = new long[10];
+    java.util.Arrays.fill(layout, 100);
+    Frame fr = new TestFrameBuilder().withColNames("x").withVecTypes(Vec.T_NUM)
+        .withDataForCol(0, ds).withChunkLayout(layout).build();
+    try {
+      Vec vec = fr.vec(0);
+      Assert.assertEquals(4.5, vec.mean(), 1e-12);
+      Assert.assertEquals(9, vec.max(), 0);
+      long scans = RollupStats.SCANS.get();
+      vec.set(250, 100);
+      vec.set(251, Double.NaN);
+      Assert.assertEquals(100, vec.max(), 0);
+      Assert.assertEquals(1, RollupStats.SCANS.get() - scans); // Only the chunk written
+      Assert.assertEquals(1, vec.naCnt());
+      Assert.assertEquals((4.5 * 1000 - 1 - 0 + 100) / 999, vec.mean(), 1e-12);
+      Assert.assertEquals(1, vec.zoneMap().naCnt(2));
+      Assert.assertEquals(0, vec.zoneMap().naCnt(3));
+      Assert.assertEquals(100, vec.zoneMap().max(2), 0);
+      Assert.assertEquals(9, vec.zoneMap().max(3), 0);
+      Assert.assertNull(RollupStats.get(vec)._zones); // Kept under their own Key
+      ds[250] = 100;
+      ds[251] = Double.NaN;
+      Vec fresh = dvec(ds);     // Same values, rolled up from scratch
+      Assert.assertEquals(fresh.sigma(), vec.sigma(), 1e-12);
+      Assert.assertEquals(fresh.nzCnt(), vec.nzCnt());
+      fresh.remove();
+    } finally {
+      fr.delete();
+    }
+  }
 }
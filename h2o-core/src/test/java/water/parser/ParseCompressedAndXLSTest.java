@@ -4,13 +4,18 @@ import static org.junit.Assert.*;
 import static water.parser.DefaultParserProviders.XLS_INFO;
 
 import org.junit.*;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.util.zip.GZIPOutputStream;
 
 import water.*;
+import water.fvec.ByteVec;
+import water.fvec.C1NChunk;
 import water.fvec.Vec;
 import water.fvec.Frame;
 import water.fvec.NFSFileVec;
 import water.util.FileUtils;
+import water.util.StringUtils;
 
 public class ParseCompressedAndXLSTest extends TestUtil {
   @BeforeClass static public void setup() { stall_till_cloudsize(5); }
@@ -73,4 +78,38 @@ public class ParseCompressedAndXLSTest extends TestUtil {
       if( k1 != null ) k1.delete();
     }
   }
+
+  // A gzipped file bigger than a chunk decompresses into many chunks, each parsed on its own
+  @Test public void testGzipParsesInParallel() throws Exception {
+    Frame fr = null;
+    try {
+      StringBuilder sb = new StringBuilder("id,half,cat\n");
+      int nrows = 500000;
+      for( int i = 0; i < nrows; i++ )
+        sb.append(i).append(',').append(i * 0.5).append(",c").append(i % 7).append('\n');
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      try( GZIPOutputStream gz = new GZIPOutputStream(bos) ) {
+        gz.write(StringUtils.bytesOf(sb));
+      }
+      byte[] bits = bos.toByteArray();
+      Key k = Vec.newKey();
+      Futures fs = new Futures();
+      ByteVec bv = new ByteVec(k, Vec.ESPC.rowLayout(k, new long[]{0, bits.length}));
+      DKV.put(k, bv, fs);
+      DKV.put(bv.chunkKey(0), new Value(bv.chunkKey(0), new C1NChunk(bits)), fs);
+      fs.blockForPending();
+
+      fr = ParseDataset.parse(Key.make(), k);
+      assertEquals(nrows, fr.numRows());
+      assertTrue(fr.anyVec().nChunks() > 1); // One per decompressed chunk
+      assertEquals((nrows - 1) / 2.0, fr.vec("id").mean(), 1e-9);
+      for( long r = 0; r < nrows; r += 9973 ) {
+        assertEquals(r, fr.vec("id").at8(r));
+        assertEquals(r * 0.5, fr.vec("half").at(r), 0);
+      }
+      assertEquals(7, fr.vec("cat").cardinality());
+    } finally {
+      if( fr != null ) fr.delete();
+    }
+  }
 }
@@ -0,0 +1,39 @@
+package water.persist;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.TestUtil;
+import water.TypeMap;
+import water.Value;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+public class PersistFSTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testCompressedRoundTrip() throws IOException {
+    byte[] bits = new byte[1<<17];
+    for( int i=0; i<bits.length; i++ ) bits[i] = (byte)((i%7)*(i>>12));
+    Value v = new Value(Key.make(), bits.length, bits, TypeMap.PRIM_B, Value.ICE);
+    File f = File.createTempFile("swap", ".ice");
+    try {
+      PersistFS.storeCompressed(f, v);
+      Assert.assertTrue(f.length() < bits.length);
+      Assert.assertArrayEquals(bits, PersistFS.loadCompressed(f, v));
+      // A cut-short file is reported as such, not as a bare EOF
+      try( RandomAccessFile raf = new RandomAccessFile(f, "rw") ) { raf.setLength(f.length()/2); }
+      try {
+        PersistFS.loadCompressed(f, v);
+        Assert.fail("Expected a truncated swap file");
+      } catch( IOException ioe ) {
+        Assert.assertTrue(ioe.getMessage(), ioe.getMessage().contains("truncated"));
+      }
+    } finally {
+      f.delete();
+    }
+  }
+}
@@ -8,7 +8,13 @@ import water.Key;
 import water.Keyed;
 import water.TestUtil;
 import water.fvec.Frame;
+import water.rapids.ast.prims.mungers.AstGroup;
 import water.rapids.vals.ValFrame;
+import water.util.ArrayUtils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
 
 public class GroupByTest extends TestUtil {
   @BeforeClass public static void setup() { stall_till_cloudsize(5); }
@@ -134,6 +140,36 @@ public class GroupByTest extends TestUtil {
     }
   }
 
+  // The columnar hash table finds the same groups and aggregates as the
+  // generic G path, for many groups of 2-column keys with NAs
+  @Test public void testHashGroups() {
+    Frame fr = null;
+    try {
+      double[][] rows = new double[20000][];
+      Random r = new Random(7);
+      for (int i = 0; i < rows.length; i++)
+        rows[i] = ard(r.nextInt(300), i % 11 == 0 ? Double.NaN : r.nextInt(20) - 10, r.nextGaussian());
+      fr = ArrayUtils.frame(rows);
+      int[] gbCols = new int[]{0, 1};
+      AstGroup.FCN[] fcns = new AstGroup.FCN[]{AstGroup.FCN.nrow, AstGroup.FCN.sdev, AstGroup.FCN.min};
+      AstGroup.AGG[] aggs = new AstGroup.AGG[fcns.length];
+      for (int a = 0; a < aggs.length; a++)
+        aggs[a] = new AstGroup.AGG(fcns[a], a == 0 ? 0 : 2, a == 0 ? AstGroup.NAHandling.ALL : AstGroup.NAHandling.RM, 0);
+      HashMap<String, AstGroup.G> exp = new HashMap<>();
+      for (AstGroup.G g : AstGroup.doGroups(fr, gbCols, aggs).keySet()) exp.put(Arrays.toString(g._gs), g);
+      AstGroup.GTable gt = AstGroup.doHashGroups(fr, gbCols, aggs);
+      Assert.assertEquals(exp.size(), gt._ngrps);
+      for (int g = 0; g < gt._ngrps; g++) {
+        AstGroup.G eg = exp.get(Arrays.toString(new double[]{gt.key(g, 0), gt.key(g, 1)}));
+        Assert.assertNotNull(eg);
+        for (int a = 0; a < aggs.length; a++)
+          Assert.assertEquals(fcns[a].postPass(eg._dss[a], 0, eg._dss[a].length, eg._ns[a]), gt.result(g, a), 1e-9);
+      }
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
   @Test public void testImpute() {
     Frame fr = null;
     Frame fr2 =null;
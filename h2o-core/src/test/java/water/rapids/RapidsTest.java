@@ -368,6 +368,128 @@ public class RapidsTest extends TestUtil {
     }
   }
 
+  // A small right side is broadcast; left rows keep their order, and every
+  // matching right row is joined
+  @Test public void testBroadcastMerge() {
+    Frame l = null, r = null, inner = null, left = null;
+    try {
+      double[][] lrows = new double[100][];
+      for (int i = 0; i < lrows.length; i++) lrows[i] = ard(i % 20, i);
+      l = ArrayUtils.frame(new String[]{"k", "x"}, lrows);
+      double[][] rrows = new double[11][];
+      for (int k = 0; k < 10; k++) rrows[k] = ard(k, 100 + k);
+      rrows[10] = ard(3, 999);
+      r = ArrayUtils.frame(new String[]{"k", "y"}, rrows);
+      inner = Rapids.exec(String.format("(merge %s %s 0 0 [] [] \"auto\")", l._key, r._key)).getFrame();
+      Assert.assertEquals(3, inner.numCols());
+      Assert.assertEquals(50 + 5, inner.numRows());
+      Assert.assertEquals(0, inner.vec(1).at(0), 0);
+      Assert.assertEquals(100, inner.vec(2).at(0), 0);
+      Assert.assertEquals(3, inner.vec(1).at(3), 0); // Left row 3, twice
+      Assert.assertEquals(103, inner.vec(2).at(3), 0);
+      Assert.assertEquals(3, inner.vec(1).at(4), 0);
+      Assert.assertEquals(999, inner.vec(2).at(4), 0);
+      left = Rapids.exec(String.format("(merge %s %s 1 0 [] [] \"auto\")", l._key, r._key)).getFrame();
+      Assert.assertEquals(100 + 5, left.numRows());
+      Assert.assertEquals(10, left.vec(1).at(11), 0);
+      Assert.assertTrue(left.vec(2).isNA(11));
+    } finally {
+      if (inner != null) inner.delete();
+      if (left != null) left.delete();
+      if (r != null) r.delete();
+      if (l != null) l.delete();
+    }
+  }
+
+  @Test public void testFusedChain() {
+    Frame fr = null, f = null;
+    try {
+      fr = ArrayUtils.frame(new String[]{"a", "b"}, ard(ard(1, 10), ard(2, 20), ard(Double.NaN, 30), ard(4, 40)));
+      // 3 elementwise ops, one pass; column b is widened over both columns of the frame
+      Val val = Rapids.exec(String.format("(- (* (log %s) 2) (cols %s [1]))", fr._key, fr._key));
+      f = val.getFrame();
+      assertArrayEquals(new String[]{"log(a)", "log(b)"}, f.names());
+      for (int i = 0; i < fr.numRows(); i++)
+        for (int c = 0; c < 2; c++)
+          assertEquals(Math.log(fr.vec(c).at(i)) * 2 - fr.vec(1).at(i), f.vec(c).at(i), 1e-12);
+    } finally {
+      if (f != null) f.delete();
+      if (fr != null) fr.delete();
+    }
+  }
+
+  // NA flags, filled with a weight and scaled, in one fused pass
+  @Test public void testFusedIsNa() {
+    Frame fr = null, f = null;
+    try {
+      fr = ArrayUtils.frame(new String[]{"a"}, ard(ard(1), ard(Double.NaN), ard(3)));
+      long passes = Fusion.PASSES.get();
+      f = Rapids.exec(String.format("(/ (- (* (is.na %s) 5) 1) 2)", fr._key)).getFrame();
+      assertEquals(1, Fusion.PASSES.get() - passes);
+      assertArrayEquals(new String[]{"isNA(a)"}, f.names());
+      assertEquals(-0.5, f.vec(0).at(0), 0);
+      assertEquals(2, f.vec(0).at(1), 0);
+      assertEquals(-0.5, f.vec(0).at(2), 0);
+    } finally {
+      if (f != null) f.delete();
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test public void testFusedReduce() {
+    Frame fr = null;
+    try {
+      fr = ArrayUtils.frame(new String[]{"x", "y"}, ard(ard(1, 10), ard(2, 20), ard(Double.NaN, 30), ard(4, 40)));
+      String d = String.format("(- (cols %s [0]) (cols %s [1]))", fr._key, fr._key);
+      // Squared differences, summed in the same pass that computes them
+      assertTrue(Double.isNaN(Rapids.exec(String.format("(sum (* %s %s))", d, d)).getNum()));
+      assertEquals(81 + 324 + 1296, Rapids.exec(String.format("(sumNA (* %s %s))", d, d)).getNum(), 1e-9);
+      assertEquals(-36, Rapids.exec(String.format("(minNA (- %s 0))", d)).getNum(), 0);
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test public void testFusedNums() {
+    Frame fr = null, f = null;
+    try {
+      fr = ArrayUtils.frame(new String[]{"a"}, ard(ard(1), ard(2)));
+      // Under a binary operator a number list stands for its first element, as eagerly
+      f = Rapids.exec(String.format("(* [2 3] (- %s 1))", fr._key)).getFrame();
+      assertEquals(0, f.vec(0).at(0), 0);
+      assertEquals(2, f.vec(0).at(1), 0);
+      // The unary operators reject it, fused or not
+      try {
+        Rapids.exec(String.format("(+ (abs [2 3]) %s)", fr._key));
+        fail("Expected the number list to be rejected");
+      } catch (water.exceptions.H2OIllegalArgumentException ignored) {}
+    } finally {
+      if (f != null) f.delete();
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test public void testCompiledExpr() {
+    Frame fr = null, r1 = null, r2 = null;
+    try {
+      fr = ArrayUtils.frame(new String[]{"x", "y"}, ard(ard(1, 10), ard(2, 20), ard(Double.NaN, 30)));
+      r1 = Rapids.exec(String.format("(+ (* (cols %s [0]) 3) (cols %s [1]))", fr._key, fr._key)).getFrame();
+      int n = CompiledExpr.compiledCount();
+      // Same shape, other constant: the compiled loop is reused
+      r2 = Rapids.exec(String.format("(+ (* (cols %s [0]) 5) (cols %s [1]))", fr._key, fr._key)).getFrame();
+      assertEquals(n, CompiledExpr.compiledCount());
+      assertTrue(CompiledExpr.cachedCount() <= CompiledExpr.CACHE_SIZE);
+      assertEquals(13, r1.vec(0).at(0), 0);
+      assertEquals(26, r1.vec(0).at(1), 0);
+      assertTrue(r1.vec(0).isNA(2));
+      assertEquals(15, r2.vec(0).at(0), 0);
+      assertEquals(30, r2.vec(0).at(1), 0);
+    } finally {
+      if (fr != null) fr.delete();
+      if (r1 != null) r1.delete();
+      if (r2 != null) r2.delete();
+    }
+  }
 
   @Test public void testQuantile() {
     Frame f = null;
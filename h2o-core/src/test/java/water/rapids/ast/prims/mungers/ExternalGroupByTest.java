@@ -0,0 +1,54 @@
+package water.rapids.ast.prims.mungers;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.H2O;
+import water.Key;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.util.ArrayUtils;
+
+import java.util.Random;
+
+public class ExternalGroupByTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(1); }
+
+  // Spilled partitions give the same groups, in the same order, as in memory
+  @Test public void testSameAsInMemory() {
+    Frame fr = null, res = null;
+    try {
+      double[][] rows = new double[50000][];
+      Random r = new Random(11);
+      for (int i = 0; i < rows.length; i++)
+        rows[i] = ard(r.nextInt(1000), i % 13 == 0 ? Double.NaN : r.nextInt(50) - 25, r.nextGaussian());
+      fr = ArrayUtils.frame(rows);
+      int[] gbCols = new int[]{0, 1};
+      AstGroup.FCN[] fcns = new AstGroup.FCN[]{AstGroup.FCN.nrow, AstGroup.FCN.sum, AstGroup.FCN.mean, AstGroup.FCN.max};
+      AstGroup.AGG[] aggs = new AstGroup.AGG[fcns.length];
+      String[] fcnames = new String[fcns.length];
+      for (int a = 0; a < aggs.length; a++) {
+        aggs[a] = new AstGroup.AGG(fcns[a], a == 0 ? 0 : 2, AstGroup.NAHandling.ALL, 0);
+        fcnames[a] = fcns[a].toString();
+      }
+      AstGroup.GTable gt = AstGroup.doHashGroups(fr, gbCols, aggs);
+      int[] order = gt.order();
+      long spilled = ExternalGroupBy.SPILLED.get();
+      res = ExternalGroupBy.groupBy(fr, gbCols, aggs, fcnames);
+      Assert.assertTrue("No batches written to disk", ExternalGroupBy.SPILLED.get() > spilled);
+      for (Key k : H2O.localKeySet())   // Headers and batches all removed
+        Assert.assertFalse(k.toString(), k.toString().startsWith("__gb_spill"));
+      Assert.assertEquals(gt._ngrps, res.numRows());
+      Assert.assertEquals(gbCols.length + aggs.length, res.numCols());
+      for (int i = 0; i < order.length; i++) {
+        for (int c = 0; c < gbCols.length; c++)
+          Assert.assertEquals(gt.key(order[i], c), res.vec(c).at(i), 0);
+        for (int a = 0; a < aggs.length; a++)
+          Assert.assertEquals(gt.result(order[i], a), res.vec(gbCols.length + a).at(i), 1e-9);
+      }
+    } finally {
+      if (fr != null) fr.delete();
+      if (res != null) res.delete();
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package water.rapids.ast.prims.mungers;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Scope;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.TestFrameBuilder;
+import water.fvec.Vec;
+import water.fvec.ZoneMap;
+import water.rapids.Rapids;
+
+public class ZoneFilterTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(1); }
+
+  // Sorted "ts", with NAs; "v" has NAs in chunks 2 and 4, and is all NAs in chunk 4
+  private static Frame frame() {
+    double[] ts = new double[100], v = new double[100];
+    for (int i = 0; i < ts.length; i++) {
+      ts[i] = i % 17 == 5 ? Double.NaN : i;
+      v[i] = (i >= 40 && i < 50) || i == 23 ? Double.NaN : i % 7;
+    }
+    long[] layout = new long[10];
+    java.util.Arrays.fill(layout, 10);
+    return new TestFrameBuilder()
+        .withName("zoneFr")
+        .withColNames("ts", "v")
+        .withVecTypes(Vec.T_NUM, Vec.T_NUM)
+        .withDataForCol(0, ts)
+        .withDataForCol(1, v)
+        .withChunkLayout(layout)
+        .build();
+  }
+
+  @Test public void testZoneMap() {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(frame());
+      ZoneMap zm = fr.vec("ts").zoneMap();
+      Assert.assertEquals(10, zm.nChunks());
+      Assert.assertEquals(30, zm.min(3), 0);
+      Assert.assertEquals(39, zm.max(3), 0);
+      Assert.assertEquals(1, zm.naCnt(2));  // Row 22
+      Assert.assertEquals(10, fr.vec("v").zoneMap().naCnt(4));
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  // Skipping chunks gives the same rows as slicing by the evaluated predicate
+  @Test public void testSameAsPredicate() {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(frame());
+      String[][] preds = new String[][]{
+          {"(> (cols zoneFr 0) 72)", "(> (+ (cols zoneFr 0) 0) 72)"},
+          {"(<= 15 (cols zoneFr [0]))", "(<= 15 (+ (cols zoneFr [0]) 0))"},
+          {"(& (>= (cols zoneFr 0) 31) (< (cols zoneFr 0) 58))", "(& (>= (+ (cols zoneFr 0) 0) 31) (< (cols zoneFr 0) 58))"},
+          {"(== (cols zoneFr 0) 64)", "(== (+ (cols zoneFr 0) 0) 64)"},
+          // No chunk skipped: sliced by the predicate computed from the evaluated columns
+          {"(& (> (cols zoneFr 0) -1) (!= 3 (cols zoneFr 1)))", "(& (> (+ (cols zoneFr 0) 0) -1) (!= 3 (cols zoneFr 1)))"},
+      };
+      for (String[] p : preds) {
+        Frame skipped = Scope.track(Rapids.exec("(rows zoneFr " + p[0] + ")").getFrame());
+        Frame full = Scope.track(Rapids.exec("(rows zoneFr " + p[1] + ")").getFrame());
+        Assert.assertTrue(p[0], full.numRows() > 0);
+        Assert.assertTrue(p[0], isBitIdentical(full, skipped));
+      }
+      Frame none = Scope.track(Rapids.exec("(rows zoneFr (> (cols zoneFr 0) 1000))").getFrame());
+      Assert.assertEquals(0, none.numRows());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  // na.omit does not compute rollups just for their zones
+  @Test public void testNaOmitKeepsRollups() {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(frame());
+      Vec v = fr.vec("v");
+      boolean ready = v.zoneMapIfReady() != null;
+      Scope.track(Rapids.exec("(na.omit zoneFr)").getFrame());
+      Assert.assertEquals(ready, v.zoneMapIfReady() != null);
+      Assert.assertNotNull(v.zoneMap());
+      Assert.assertNotNull(v.zoneMapIfReady());
+    } finally {
+      Scope.exit();
+    }
+  }
+
+  @Test public void testNaOmit() {
+    Scope.enter();
+    try {
+      Frame fr = Scope.track(frame());
+      long expected = 0;
+      for (long r = 0; r < fr.numRows(); r++)
+        if (!fr.vec(0).isNA(r) && !fr.vec(1).isNA(r)) expected++;
+      // Without rollups, then by the zones once they are computed
+      for (int pass = 0; pass < 2; pass++) {
+        if (pass == 1) for (Vec v : fr.vecs()) Assert.assertNotNull(v.zoneMap());
+        Frame res = Scope.track(Rapids.exec("(na.omit zoneFr)").getFrame());
+        Assert.assertEquals(expected, res.numRows());
+        for (long r = 0; r < res.numRows(); r++)
+          Assert.assertEquals(res.vec(0).at(r) % 7, res.vec(1).at(r), 0);
+      }
+    } finally {
+      Scope.exit();
+    }
+  }
+}